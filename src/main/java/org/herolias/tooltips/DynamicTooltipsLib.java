@@ -7,6 +7,7 @@ import com.hypixel.hytale.server.core.plugin.JavaPluginInit;
 import com.hypixel.hytale.server.core.universe.PlayerRef;
 import com.hypixel.hytale.server.core.universe.Universe;
 import com.hypixel.hytale.server.core.universe.world.World;
+import org.herolias.tooltips.api.CacheStats;
 import org.herolias.tooltips.api.DynamicTooltipsApi;
 import org.herolias.tooltips.api.DynamicTooltipsApiProvider;
 import org.herolias.tooltips.api.TooltipProvider;
@@ -77,6 +78,14 @@ public class DynamicTooltipsLib extends JavaPlugin {
         LOGGER.atInfo().log("DynamicTooltipsLib setup complete — API registered");
     }
 
+    @Override
+    protected void shutdown() {
+        // Stop intercepting packets and stop any staggered refreshes still in flight
+        if (packetAdapter != null) {
+            packetAdapter.deregister();
+        }
+    }
+
     private void onPlayerConnect(com.hypixel.hytale.server.core.event.events.player.PlayerConnectEvent event) {
         if (globalTooltipManager != null) {
             globalTooltipManager.sendAllUpdates(event.getPlayerRef());
@@ -157,17 +166,43 @@ public class DynamicTooltipsLib extends JavaPlugin {
             this.refreshAllPlayers();
         }
 
+        @Override
+        public void applyGlobalTooltipBatch(@Nonnull java.util.function.Consumer<GlobalTooltipBatch> changes) {
+            GlobalTooltipManager.Batch batch = globalTooltipManager.newBatch();
+            changes.accept(batch);
+            int changed = globalTooltipManager.applyBatch(batch);
+            LOGGER.atFine().log("Applied global tooltip batch (" + changed + " items changed)");
+            if (changed > 0) this.refreshAllPlayers();
+        }
+
         @Override
         public void invalidatePlayer(@Nonnull java.util.UUID playerUuid) {
-            registry.clearCache();
+            int invalidated = registry.invalidateItems(packetAdapter.getInventoryItemIds(playerUuid));
             virtualItemRegistry.invalidatePlayer(playerUuid);
             packetAdapter.invalidatePlayer(playerUuid);
-            LOGGER.atFine().log("Invalidated tooltip caches for player " + playerUuid);
+            LOGGER.atFine().log("Invalidated tooltip caches for player " + playerUuid
+                    + " (" + invalidated + " cached states)");
+        }
+
+        @Override
+        public void invalidateProvider(@Nonnull String providerId) {
+            for (String itemId : registry.getProviderItemIds(providerId)) {
+                virtualItemRegistry.invalidateDescriptions(itemId);
+            }
+            int invalidated = registry.invalidateProvider(providerId);
+            LOGGER.atFine().log("Invalidated " + invalidated + " cached states for provider " + providerId);
+        }
+
+        @Override
+        public void invalidateItem(@Nonnull String baseItemId) {
+            int invalidated = registry.invalidateItem(baseItemId);
+            virtualItemRegistry.invalidateDescriptions(baseItemId);
+            LOGGER.atFine().log("Invalidated " + invalidated + " cached states for item " + baseItemId);
         }
 
         @Override
         public void invalidateAll() {
-            registry.clearCache();
+            registry.invalidateAll();
             virtualItemRegistry.clearCache();
             packetAdapter.invalidateAllPlayers();
             LOGGER.atInfo().log("Invalidated all tooltip caches");
@@ -182,9 +217,31 @@ public class DynamicTooltipsLib extends JavaPlugin {
 
         @Override
         public void refreshAllPlayers() {
+            refreshAllPlayers(null);
+        }
+
+        @Override
+        public void refreshAllPlayers(@Nullable java.util.UUID nearPlayer) {
             invalidateAll();
-            int count = packetAdapter.refreshAllPlayers();
-            LOGGER.atInfo().log("Refreshed tooltips for " + count + " players");
+            int count = packetAdapter.refreshAllPlayers(nearPlayer);
+            LOGGER.atInfo().log("Scheduled tooltip refresh for " + count + " players");
+        }
+
+        @Override
+        public void setRefreshWindow(long windowMillis) {
+            packetAdapter.setRefreshWindow(windowMillis);
+        }
+
+        @Nonnull
+        @Override
+        public Map<String, CacheStats> getCacheStats() {
+            Map<String, CacheStats> stats = new LinkedHashMap<>();
+            stats.put("itemState", registry.getStateCacheStats());
+            stats.put("providerResult", registry.getProviderResultCacheStats());
+            stats.put("composed", registry.getComposedCacheStats());
+            stats.put("virtualItem", virtualItemRegistry.getVirtualItemCacheStats());
+            stats.put("description", virtualItemRegistry.getDescriptionCacheStats());
+            return Collections.unmodifiableMap(stats);
         }
     }
 }
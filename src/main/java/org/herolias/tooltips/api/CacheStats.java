@@ -0,0 +1,55 @@
+package org.herolias.tooltips.api;
+
+import javax.annotation.Nonnull;
+
+/**
+ * A point-in-time snapshot of one of the library's internal caches.
+ * <p>
+ * Counters accumulate from server start; clearing or invalidating a cache
+ * does not reset them. Obtain snapshots via
+ * {@link DynamicTooltipsApi#getCacheStats()}.
+ */
+public final class CacheStats {
+
+    private final long hitCount;
+    private final long missCount;
+    private final long evictionCount;
+    private final int size;
+    private final int maximumSize;
+
+    /** Created by the library; there is no need to construct instances yourself. */
+    public CacheStats(long hitCount, long missCount, long evictionCount, int size, int maximumSize) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+        this.size = size;
+        this.maximumSize = maximumSize;
+    }
+
+    /** Number of lookups that found a cached entry. */
+    public long getHitCount() { return hitCount; }
+    /** Number of lookups that found nothing. */
+    public long getMissCount() { return missCount; }
+    /** Number of entries dropped to make room for new ones. */
+    public long getEvictionCount() { return evictionCount; }
+    /** Current number of entries. */
+    public int getSize() { return size; }
+    /** Capacity at which the cache starts evicting. */
+    public int getMaximumSize() { return maximumSize; }
+
+    /** Fraction of lookups that were hits, or {@code 0} if there were no lookups. */
+    public double getHitRate() {
+        long total = hitCount + missCount;
+        return total == 0 ? 0.0 : (double) hitCount / total;
+    }
+
+    @Nonnull
+    @Override
+    public String toString() {
+        return "size=" + size + "/" + maximumSize
+                + ", hits=" + hitCount
+                + ", misses=" + missCount
+                + ", evictions=" + evictionCount
+                + String.format(", hitRate=%.1f%%", getHitRate() * 100);
+    }
+}
@@ -98,6 +98,54 @@ public interface DynamicTooltipsApi {
      */
     void clearGlobalTooltips(@Nonnull String baseItemId);
 
+    /**
+     * Records global tooltip changes for
+     * {@link DynamicTooltipsApi#applyGlobalTooltipBatch(java.util.function.Consumer)}.
+     * The methods mirror the single-change global tooltip methods of the API
+     * and return this batch for chaining.
+     */
+    interface GlobalTooltipBatch {
+        @Nonnull
+        GlobalTooltipBatch addGlobalLine(@Nonnull String baseItemId, @Nonnull String line);
+
+        @Nonnull
+        GlobalTooltipBatch addGlobalTranslationLine(@Nonnull String baseItemId, @Nonnull String translationKey);
+
+        @Nonnull
+        GlobalTooltipBatch replaceGlobalTooltip(@Nonnull String baseItemId, @Nonnull String... lines);
+
+        @Nonnull
+        GlobalTooltipBatch replaceGlobalTranslationTooltip(@Nonnull String baseItemId, @Nonnull String... translationKeys);
+
+        @Nonnull
+        GlobalTooltipBatch clearGlobalTooltips(@Nonnull String baseItemId);
+    }
+
+    /**
+     * Applies many global tooltip changes at once.
+     * <p>
+     * Every single-change method above sends a translation update to every
+     * player and refreshes all players. This method records the changes
+     * made by {@code changes}, applies them together, then sends each player
+     * one translation update covering all affected items and refreshes all
+     * players once. Use it when registering many global lines, e.g. at startup
+     * or after a config reload.
+     * <p>
+     * If {@code changes} throws, none of its changes are applied. The batch
+     * must not be used after this method returns.
+     *
+     * <pre>{@code
+     * api.applyGlobalTooltipBatch(batch -> {
+     *     for (LoreEntry entry : lore) {
+     *         batch.addGlobalLine(entry.itemId(), entry.text());
+     *     }
+     * });
+     * }</pre>
+     *
+     * @param changes records the changes on the given batch
+     */
+    void applyGlobalTooltipBatch(@Nonnull java.util.function.Consumer<GlobalTooltipBatch> changes);
+
     // ─────────────────────────────────────────────────────────────────────
     //  Cache invalidation
     // ─────────────────────────────────────────────────────────────────────
@@ -105,14 +153,34 @@ public interface DynamicTooltipsApi {
     /**
      * Invalidates all cached tooltip data for a specific player.
      * <p>
-     * The next outbound inventory packet for this player will trigger a full
-     * re-composition from all providers — no cached data is reused. Use this
-     * after modifying item metadata that affects tooltips for a single player.
+     * The cached compositions of every item type in the player's inventory are
+     * dropped, so the next outbound inventory packet for this player
+     * re-queries all providers for those items. Other items stay cached. Use
+     * this after modifying item metadata that affects tooltips for a single player.
      *
      * @param playerUuid the player whose caches should be cleared
      */
     void invalidatePlayer(@Nonnull java.util.UUID playerUuid);
 
+    /**
+     * Invalidates the cached tooltips that the given provider contributed to
+     * (or was consulted for).
+     * <p>
+     * Use this when only your own provider's logic or configuration changed;
+     * items your provider does not apply to stay cached.
+     *
+     * @param providerId the {@link TooltipProvider#getProviderId() provider ID}
+     */
+    void invalidateProvider(@Nonnull String providerId);
+
+    /**
+     * Invalidates the cached tooltips of one base item type, across all
+     * metadata variants and languages.
+     *
+     * @param baseItemId the base item ID (e.g. {@code "Tool_Pickaxe_Adamantite"})
+     */
+    void invalidateItem(@Nonnull String baseItemId);
+
     /**
      * Invalidates <b>all</b> cached tooltip data (global + every player).
      * <p>
@@ -134,12 +202,56 @@ public interface DynamicTooltipsApi {
     void refreshPlayer(@Nonnull java.util.UUID playerUuid);
 
     /**
-     * Invalidates all caches and immediately refreshes tooltips for every
-     * online player.
+     * Invalidates all caches and refreshes tooltips for every online player.
      * <p>
      * Equivalent to calling {@link #invalidateAll()} followed by
-     * {@link #refreshPlayer(java.util.UUID)} for every online player.
+     * {@link #refreshPlayer(java.util.UUID)} for every online player, except
+     * that the refreshes are spread over the {@link #setRefreshWindow(long)
+     * refresh window} instead of being sent in a single tick.
      * Use after config reloads or provider logic changes that affect all players.
      */
     void refreshAllPlayers();
+
+    /**
+     * Like {@link #refreshAllPlayers()}, but refreshes {@code nearPlayer}
+     * first, followed by the players in the same world. Use when a player's
+     * action (e.g. a command) caused the change, so the players most likely
+     * to notice see it first.
+     *
+     * @param nearPlayer the player who triggered the change, or {@code null}
+     *                   for no preference
+     */
+    void refreshAllPlayers(@Nullable java.util.UUID nearPlayer);
+
+    /**
+     * Sets the window over which {@link #refreshAllPlayers()} spreads its
+     * per-player refreshes. Defaults to one second; {@code 0} refreshes every
+     * player at once.
+     *
+     * @param windowMillis the window in milliseconds, {@code >= 0}
+     * @throws IllegalArgumentException if {@code windowMillis} is negative
+     */
+    void setRefreshWindow(long windowMillis);
+
+    // ─────────────────────────────────────────────────────────────────────
+    //  Diagnostics
+    // ─────────────────────────────────────────────────────────────────────
+
+    /**
+     * Returns a snapshot of the library's internal cache counters, keyed by
+     * cache name:
+     * <ul>
+     *   <li>{@code "itemState"} — composed tooltip per item state</li>
+     *   <li>{@code "providerResult"} — individual provider results</li>
+     *   <li>{@code "composed"} — compositions shared by item states with the same hash inputs</li>
+     *   <li>{@code "virtualItem"} — virtual item definitions</li>
+     *   <li>{@code "description"} — rendered per-language descriptions</li>
+     * </ul>
+     * Useful for tuning {@link TooltipCachePolicy} and spotting providers
+     * whose hash inputs defeat caching (a low {@code itemState} hit rate).
+     *
+     * @return an unmodifiable, insertion-ordered map of cache name to stats
+     */
+    @Nonnull
+    java.util.Map<String, CacheStats> getCacheStats();
 }
@@ -0,0 +1,83 @@
+package org.herolias.tooltips.api;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Streaming 64-bit hash (xxHash64-style rounds) for the structural
+ * fingerprints of {@link TooltipData} and {@link ItemVisualOverrides}.
+ * <p>
+ * Values are mixed in directly as they are produced, so callers never need to
+ * concatenate their inputs into an intermediate string first. Strings are
+ * length-prefixed, which keeps {@code ("ab", "c")} and {@code ("a", "bc")}
+ * distinct.
+ * <p>
+ * Not thread-safe; create one instance per fingerprint.
+ */
+final class Fingerprint {
+
+    private static final long PRIME_1 = 0x9E3779B185EBCA87L;
+    private static final long PRIME_2 = 0xC2B2AE3D27D4EB4FL;
+    private static final long PRIME_3 = 0x165667B19E3779F9L;
+    private static final long PRIME_4 = 0x85EBCA77C2B2AE63L;
+    private static final long PRIME_5 = 0x27D4EB2F165667C5L;
+
+    /** Marker mixed in for {@code null} strings, distinct from any length prefix. */
+    private static final long NULL_MARKER = 0xFFFF_FFFF_FFFF_FFFFL;
+
+    private long state = PRIME_5;
+    private long length;
+
+    @Nonnull
+    Fingerprint putLong(long value) {
+        long k = value * PRIME_2;
+        k = Long.rotateLeft(k, 31);
+        k *= PRIME_1;
+        state ^= k;
+        state = Long.rotateLeft(state, 27) * PRIME_1 + PRIME_4;
+        length += 8;
+        return this;
+    }
+
+    @Nonnull
+    Fingerprint putBoolean(boolean value) {
+        return putLong(value ? 1 : 0);
+    }
+
+    /**
+     * Mixes in a (nullable) string, four UTF-16 chars per round.
+     */
+    @Nonnull
+    Fingerprint putString(@Nullable String value) {
+        if (value == null) return putLong(NULL_MARKER);
+
+        int len = value.length();
+        putLong(len);
+        int i = 0;
+        for (; i + 4 <= len; i += 4) {
+            putLong(((long) value.charAt(i))
+                    | ((long) value.charAt(i + 1) << 16)
+                    | ((long) value.charAt(i + 2) << 32)
+                    | ((long) value.charAt(i + 3) << 48));
+        }
+        if (i < len) {
+            long tail = 0;
+            for (int shift = 0; i < len; i++, shift += 16) {
+                tail |= (long) value.charAt(i) << shift;
+            }
+            putLong(tail);
+        }
+        return this;
+    }
+
+    /** Returns the final avalanche-mixed hash of everything put so far. */
+    long hash() {
+        long h = state + length;
+        h ^= h >>> 33;
+        h *= PRIME_2;
+        h ^= h >>> 29;
+        h *= PRIME_3;
+        h ^= h >>> 32;
+        return h;
+    }
+}
@@ -0,0 +1,186 @@
+package org.herolias.tooltips.api;
+
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * Read-only view of an item's metadata, parsed at most once per composition.
+ * <p>
+ * The library creates one view per {@code compose} call and hands the same
+ * instance to every provider, so the metadata JSON is parsed once no matter
+ * how many providers read it. Parsing is lazy: providers that only look at
+ * {@link #getRaw()} (or none at all) never trigger it.
+ *
+ * <pre>{@code
+ * int level = metadata.getInt("SimpleEnchantments.Level", 0);
+ * String owner = metadata.getString("Owner");
+ * }</pre>
+ *
+ * <h2>Paths</h2>
+ * Values are addressed by dot-separated paths into nested documents
+ * (e.g. {@code "Enchantments.Sharpness"}). A top-level key that itself
+ * contains dots can still be read by passing the key verbatim.
+ *
+ * <h2>Immutability</h2>
+ * The parsed tree is shared between providers and is never exposed directly.
+ * {@link #getDocument} and {@link #getArray} return copies that the caller may
+ * modify freely. A view is only valid for the duration of the provider call
+ * and is not thread-safe; do not retain it.
+ */
+public final class ItemMetadataView {
+
+    private static final ItemMetadataView ABSENT = new ItemMetadataView(null);
+
+    @Nullable private final String raw;
+    @Nullable private BsonDocument parsed;
+    private boolean parseAttempted;
+
+    private ItemMetadataView(@Nullable String raw) {
+        this.raw = raw;
+    }
+
+    /**
+     * Wraps a metadata JSON string. Does not parse it.
+     *
+     * @param raw the item's metadata JSON, or {@code null} if the item has none
+     */
+    @Nonnull
+    public static ItemMetadataView of(@Nullable String raw) {
+        return raw == null ? ABSENT : new ItemMetadataView(raw);
+    }
+
+    /** The original metadata JSON string, or {@code null} if the item has no metadata. */
+    @Nullable
+    public String getRaw() {
+        return raw;
+    }
+
+    /** Whether the item has metadata at all. */
+    public boolean isPresent() {
+        return raw != null;
+    }
+
+    /** Top-level keys of the metadata document (empty if absent or unparseable). */
+    @Nonnull
+    public Set<String> getKeys() {
+        BsonDocument doc = document();
+        return doc != null ? Collections.unmodifiableSet(doc.keySet()) : Collections.emptySet();
+    }
+
+    /** Whether a value exists at the given path. */
+    public boolean has(@Nonnull String path) {
+        return resolve(path) != null;
+    }
+
+    /** The string at the given path, or {@code null} if missing or not a string. */
+    @Nullable
+    public String getString(@Nonnull String path) {
+        BsonValue value = resolve(path);
+        return value != null && value.isString() ? value.asString().getValue() : null;
+    }
+
+    /** The number at the given path as an {@code int}, or {@code defaultValue}. */
+    public int getInt(@Nonnull String path, int defaultValue) {
+        BsonValue value = resolve(path);
+        return value != null && value.isNumber() ? value.asNumber().intValue() : defaultValue;
+    }
+
+    /** The number at the given path as a {@code long}, or {@code defaultValue}. */
+    public long getLong(@Nonnull String path, long defaultValue) {
+        BsonValue value = resolve(path);
+        return value != null && value.isNumber() ? value.asNumber().longValue() : defaultValue;
+    }
+
+    /** The number at the given path as a {@code double}, or {@code defaultValue}. */
+    public double getDouble(@Nonnull String path, double defaultValue) {
+        BsonValue value = resolve(path);
+        return value != null && value.isNumber() ? value.asNumber().doubleValue() : defaultValue;
+    }
+
+    /** The boolean at the given path, or {@code defaultValue}. */
+    public boolean getBoolean(@Nonnull String path, boolean defaultValue) {
+        BsonValue value = resolve(path);
+        return value != null && value.isBoolean() ? value.asBoolean().getValue() : defaultValue;
+    }
+
+    /**
+     * The value at the given path serialized as JSON (e.g. {@code 5},
+     * {@code "abc"} or {@code {"a": 1}}), or {@code null} if missing.
+     */
+    @Nullable
+    public String getJson(@Nonnull String path) {
+        BsonValue value = resolve(path);
+        if (value == null) return null;
+        if (value.isDocument()) return value.asDocument().toJson();
+        // Only documents serialize on their own; unwrap {"v": <value>}
+        String json = new BsonDocument("v", value).toJson();
+        int colon = json.indexOf(':');
+        return json.substring(colon + 1, json.length() - 1).trim();
+    }
+
+    /** A copy of the sub-document at the given path, or {@code null}. */
+    @Nullable
+    public BsonDocument getDocument(@Nonnull String path) {
+        BsonValue value = resolve(path);
+        return value != null && value.isDocument() ? value.asDocument().clone() : null;
+    }
+
+    /** A copy of the array at the given path, or {@code null}. */
+    @Nullable
+    public BsonArray getArray(@Nonnull String path) {
+        BsonValue value = resolve(path);
+        return value != null && value.isArray() ? value.asArray().clone() : null;
+    }
+
+    /** A copy of the whole metadata document, or {@code null} if absent or unparseable. */
+    @Nullable
+    public BsonDocument toDocument() {
+        BsonDocument doc = document();
+        return doc != null ? doc.clone() : null;
+    }
+
+    // ─────────────────────────────────────────────────────────────────────
+    //  Internal
+    // ─────────────────────────────────────────────────────────────────────
+
+    @Nullable
+    private BsonDocument document() {
+        if (!parseAttempted) {
+            parseAttempted = true;
+            if (raw != null) {
+                try {
+                    parsed = BsonDocument.parse(raw);
+                } catch (Exception ignored) {
+                    // Malformed metadata reads as an empty document
+                }
+            }
+        }
+        return parsed;
+    }
+
+    @Nullable
+    private BsonValue resolve(@Nonnull String path) {
+        BsonDocument current = document();
+        if (current == null) return null;
+
+        BsonValue verbatim = current.get(path);
+        if (verbatim != null) return verbatim;
+
+        int start = 0;
+        while (true) {
+            int dot = path.indexOf('.', start);
+            String key = dot < 0 ? path.substring(start) : path.substring(start, dot);
+            BsonValue value = current.get(key);
+            if (dot < 0 || value == null) return value;
+            if (!value.isDocument()) return null;
+            current = value.asDocument();
+            start = dot + 1;
+        }
+    }
+}
@@ -24,9 +24,48 @@ import java.util.Objects;
  * <p>
  * Use the {@link Builder} to construct an instance. All fields are optional;
  * only non-null values will override the original item's properties.
+ *
+ * <h2>Presence mask</h2>
+ * {@link #getPresenceMask()} has one bit per field, set when the field is
+ * non-null (bit positions are the {@code int} constants below, e.g.
+ * {@code 1L << MODEL}). It is computed once at {@link Builder#build()} so
+ * merging and application only visit fields that are actually set.
  */
 public final class ItemVisualOverrides {
 
+    // ── Presence mask bit positions ──
+    public static final int MODEL = 0;
+    public static final int TEXTURE = 1;
+    public static final int ICON = 2;
+    public static final int ANIMATION = 3;
+    public static final int SOUND_EVENT_INDEX = 4;
+    public static final int SCALE = 5;
+    public static final int QUALITY_INDEX = 6;
+    public static final int LIGHT = 7;
+    public static final int PARTICLES = 8;
+    public static final int PLAYER_ANIMATIONS_ID = 9;
+    public static final int USE_PLAYER_ANIMATIONS = 10;
+    public static final int RETICLE_INDEX = 11;
+    public static final int ICON_PROPERTIES = 12;
+    public static final int FIRST_PERSON_PARTICLES = 13;
+    public static final int TRAILS = 14;
+    public static final int DROPPED_ITEM_ANIMATION = 15;
+    public static final int ITEM_SOUND_SET_INDEX = 16;
+    public static final int ITEM_APPEARANCE_CONDITIONS = 17;
+    public static final int PULLBACK_CONFIG = 18;
+    public static final int CLIPS_GEOMETRY = 19;
+    public static final int RENDER_DEPLOYABLE_PREVIEW = 20;
+    public static final int SET = 21;
+    public static final int CATEGORIES = 22;
+    public static final int DISPLAY_ENTITY_STATS_HUD = 23;
+    public static final int ITEM_ENTITY = 24;
+    public static final int DURABILITY = 25;
+    public static final int ARMOR = 26;
+    public static final int WEAPON = 27;
+    public static final int TOOL = 28;
+    public static final int ADDITIONAL_ARMOR_STAT_MODIFIERS = 29;
+    public static final int ADDITIONAL_WEAPON_STAT_MODIFIERS = 30;
+
     // ── Existing visual overrides ──
     @Nullable private final String model;
     @Nullable private final String texture;
@@ -66,6 +105,11 @@ public final class ItemVisualOverrides {
     @Nullable private final Map<Integer, Modifier[]> additionalArmorStatModifiers;
     @Nullable private final Map<Integer, Modifier[]> additionalWeaponStatModifiers;
 
+    private final long presenceMask;
+    private final long fingerprint;
+    /** Lazily built {@link #appendHashInput} string; see {@link #getHashInput()}. */
+    @Nullable private String hashInput;
+
     private ItemVisualOverrides(Builder builder) {
         this.model = builder.model;
         this.texture = builder.texture;
@@ -98,6 +142,44 @@ public final class ItemVisualOverrides {
         this.tool = builder.tool;
         this.additionalArmorStatModifiers = builder.additionalArmorStatModifiers;
         this.additionalWeaponStatModifiers = builder.additionalWeaponStatModifiers;
+        this.presenceMask = computePresenceMask();
+        this.fingerprint = computeFingerprint();
+    }
+
+    private long computePresenceMask() {
+        long mask = 0;
+        if (model != null) mask |= 1L << MODEL;
+        if (texture != null) mask |= 1L << TEXTURE;
+        if (icon != null) mask |= 1L << ICON;
+        if (animation != null) mask |= 1L << ANIMATION;
+        if (soundEventIndex != null) mask |= 1L << SOUND_EVENT_INDEX;
+        if (scale != null) mask |= 1L << SCALE;
+        if (qualityIndex != null) mask |= 1L << QUALITY_INDEX;
+        if (light != null) mask |= 1L << LIGHT;
+        if (particles != null) mask |= 1L << PARTICLES;
+        if (playerAnimationsId != null) mask |= 1L << PLAYER_ANIMATIONS_ID;
+        if (usePlayerAnimations != null) mask |= 1L << USE_PLAYER_ANIMATIONS;
+        if (reticleIndex != null) mask |= 1L << RETICLE_INDEX;
+        if (iconProperties != null) mask |= 1L << ICON_PROPERTIES;
+        if (firstPersonParticles != null) mask |= 1L << FIRST_PERSON_PARTICLES;
+        if (trails != null) mask |= 1L << TRAILS;
+        if (droppedItemAnimation != null) mask |= 1L << DROPPED_ITEM_ANIMATION;
+        if (itemSoundSetIndex != null) mask |= 1L << ITEM_SOUND_SET_INDEX;
+        if (itemAppearanceConditions != null) mask |= 1L << ITEM_APPEARANCE_CONDITIONS;
+        if (pullbackConfig != null) mask |= 1L << PULLBACK_CONFIG;
+        if (clipsGeometry != null) mask |= 1L << CLIPS_GEOMETRY;
+        if (renderDeployablePreview != null) mask |= 1L << RENDER_DEPLOYABLE_PREVIEW;
+        if (set != null) mask |= 1L << SET;
+        if (categories != null) mask |= 1L << CATEGORIES;
+        if (displayEntityStatsHUD != null) mask |= 1L << DISPLAY_ENTITY_STATS_HUD;
+        if (itemEntity != null) mask |= 1L << ITEM_ENTITY;
+        if (durability != null) mask |= 1L << DURABILITY;
+        if (armor != null) mask |= 1L << ARMOR;
+        if (weapon != null) mask |= 1L << WEAPON;
+        if (tool != null) mask |= 1L << TOOL;
+        if (additionalArmorStatModifiers != null) mask |= 1L << ADDITIONAL_ARMOR_STAT_MODIFIERS;
+        if (additionalWeaponStatModifiers != null) mask |= 1L << ADDITIONAL_WEAPON_STAT_MODIFIERS;
+        return mask;
     }
 
     // ── Getters (existing) ──
@@ -148,23 +230,86 @@ public final class ItemVisualOverrides {
     /** Returns additive weapon stat modifiers to merge with the original, or {@code null}. */
     @Nullable public Map<Integer, Modifier[]> getAdditionalWeaponStatModifiers() { return additionalWeaponStatModifiers; }
 
+    /**
+     * Mixes the same inputs as {@link #appendHashInput} into a 64-bit value,
+     * field by field over the set bits.
+     */
+    private long computeFingerprint() {
+        Fingerprint h = new Fingerprint().putLong(presenceMask);
+        long mask = presenceMask;
+        while (mask != 0) {
+            int field = Long.numberOfTrailingZeros(mask);
+            mask &= mask - 1;
+            switch (field) {
+                case MODEL -> h.putString(model);
+                case TEXTURE -> h.putString(texture);
+                case ICON -> h.putString(icon);
+                case ANIMATION -> h.putString(animation);
+                case SOUND_EVENT_INDEX -> h.putLong(soundEventIndex);
+                case SCALE -> h.putLong(Float.floatToIntBits(scale));
+                case QUALITY_INDEX -> h.putLong(qualityIndex);
+                case LIGHT -> h.putLong(light.hashCode());
+                case PARTICLES -> h.putLong(particles.length);
+                case PLAYER_ANIMATIONS_ID -> h.putString(playerAnimationsId);
+                case USE_PLAYER_ANIMATIONS -> h.putLong(usePlayerAnimations ? 1 : 0);
+                case RETICLE_INDEX -> h.putLong(reticleIndex);
+                case ICON_PROPERTIES -> h.putLong(iconProperties.hashCode());
+                case FIRST_PERSON_PARTICLES -> h.putLong(firstPersonParticles.length);
+                case TRAILS -> h.putLong(trails.length);
+                case DROPPED_ITEM_ANIMATION -> h.putString(droppedItemAnimation);
+                case ITEM_SOUND_SET_INDEX -> h.putLong(itemSoundSetIndex);
+                case ITEM_APPEARANCE_CONDITIONS -> h.putLong(itemAppearanceConditions.size());
+                case PULLBACK_CONFIG -> h.putLong(pullbackConfig.hashCode());
+                case CLIPS_GEOMETRY -> h.putLong(clipsGeometry ? 1 : 0);
+                case RENDER_DEPLOYABLE_PREVIEW -> h.putLong(renderDeployablePreview ? 1 : 0);
+                case SET -> h.putString(set);
+                case CATEGORIES -> h.putLong(Arrays.hashCode(categories));
+                case DISPLAY_ENTITY_STATS_HUD -> h.putLong(Arrays.hashCode(displayEntityStatsHUD));
+                case ITEM_ENTITY -> h.putLong(itemEntity.hashCode());
+                case DURABILITY -> h.putLong(Double.doubleToLongBits(durability));
+                case ARMOR -> h.putLong(deepHashItemArmor(armor));
+                case WEAPON -> h.putLong(deepHashItemWeapon(weapon));
+                case TOOL -> h.putLong(tool.hashCode());
+                case ADDITIONAL_ARMOR_STAT_MODIFIERS -> h.putLong(deepHashModifierMap(additionalArmorStatModifiers));
+                case ADDITIONAL_WEAPON_STAT_MODIFIERS -> h.putLong(deepHashModifierMap(additionalWeaponStatModifiers));
+                default -> { }
+            }
+        }
+        return h.hash();
+    }
+
+    /**
+     * Returns the set of non-null fields as a bitmask ({@code 1L << MODEL}, ...).
+     */
+    public long getPresenceMask() { return presenceMask; }
+
+    /**
+     * Returns a 64-bit fingerprint of the {@linkplain #appendHashInput hash input},
+     * computed once at build time. Equal hash inputs always have equal
+     * fingerprints; unequal ones collide only by chance.
+     */
+    public long getFingerprint() { return fingerprint; }
+
+    /**
+     * Returns the {@link #appendHashInput} string, built on first use and then
+     * memoized. Used to verify that equal fingerprints really are equal inputs.
+     */
+    @Nonnull
+    public String getHashInput() {
+        String s = hashInput;
+        if (s == null) {
+            StringBuilder sb = new StringBuilder();
+            appendHashInput(sb);
+            hashInput = s = sb.toString();
+        }
+        return s;
+    }
+
     /**
      * Returns true if this instance has no overrides set.
      */
     public boolean isEmpty() {
-        return model == null && texture == null && icon == null && animation == null
-                && soundEventIndex == null && scale == null && qualityIndex == null
-                && light == null && particles == null && playerAnimationsId == null
-                && usePlayerAnimations == null
-                && reticleIndex == null && iconProperties == null
-                && firstPersonParticles == null && trails == null
-                && droppedItemAnimation == null && itemSoundSetIndex == null
-                && itemAppearanceConditions == null && pullbackConfig == null
-                && clipsGeometry == null && renderDeployablePreview == null
-                && set == null && categories == null && displayEntityStatsHUD == null
-                && itemEntity == null && durability == null
-                && armor == null && weapon == null && tool == null
-                && additionalArmorStatModifiers == null && additionalWeaponStatModifiers == null;
+        return presenceMask == 0;
     }
 
     /**
@@ -508,6 +653,55 @@ public final class ItemVisualOverrides {
             return this.tool;
         }
 
+        /**
+         * Copies every field set in {@code other} onto this builder, replacing
+         * the current value. Additive stat modifiers are appended instead.
+         * Only the fields in {@code other}'s presence mask are visited.
+         */
+        @Nonnull
+        public Builder overlay(@Nonnull ItemVisualOverrides other) {
+            long mask = other.presenceMask;
+            while (mask != 0) {
+                int field = Long.numberOfTrailingZeros(mask);
+                mask &= mask - 1;
+                switch (field) {
+                    case MODEL -> this.model = other.model;
+                    case TEXTURE -> this.texture = other.texture;
+                    case ICON -> this.icon = other.icon;
+                    case ANIMATION -> this.animation = other.animation;
+                    case SOUND_EVENT_INDEX -> this.soundEventIndex = other.soundEventIndex;
+                    case SCALE -> this.scale = other.scale;
+                    case QUALITY_INDEX -> this.qualityIndex = other.qualityIndex;
+                    case LIGHT -> this.light = other.light;
+                    case PARTICLES -> this.particles = other.particles;
+                    case PLAYER_ANIMATIONS_ID -> this.playerAnimationsId = other.playerAnimationsId;
+                    case USE_PLAYER_ANIMATIONS -> this.usePlayerAnimations = other.usePlayerAnimations;
+                    case RETICLE_INDEX -> this.reticleIndex = other.reticleIndex;
+                    case ICON_PROPERTIES -> this.iconProperties = other.iconProperties;
+                    case FIRST_PERSON_PARTICLES -> this.firstPersonParticles = other.firstPersonParticles;
+                    case TRAILS -> this.trails = other.trails;
+                    case DROPPED_ITEM_ANIMATION -> this.droppedItemAnimation = other.droppedItemAnimation;
+                    case ITEM_SOUND_SET_INDEX -> this.itemSoundSetIndex = other.itemSoundSetIndex;
+                    case ITEM_APPEARANCE_CONDITIONS -> this.itemAppearanceConditions = other.itemAppearanceConditions;
+                    case PULLBACK_CONFIG -> this.pullbackConfig = other.pullbackConfig;
+                    case CLIPS_GEOMETRY -> this.clipsGeometry = other.clipsGeometry;
+                    case RENDER_DEPLOYABLE_PREVIEW -> this.renderDeployablePreview = other.renderDeployablePreview;
+                    case SET -> this.set = other.set;
+                    case CATEGORIES -> this.categories = other.categories;
+                    case DISPLAY_ENTITY_STATS_HUD -> this.displayEntityStatsHUD = other.displayEntityStatsHUD;
+                    case ITEM_ENTITY -> this.itemEntity = other.itemEntity;
+                    case DURABILITY -> this.durability = other.durability;
+                    case ARMOR -> this.armor = other.armor;
+                    case WEAPON -> this.weapon = other.weapon;
+                    case TOOL -> this.tool = other.tool;
+                    case ADDITIONAL_ARMOR_STAT_MODIFIERS -> addArmorStatModifiers(other.additionalArmorStatModifiers);
+                    case ADDITIONAL_WEAPON_STAT_MODIFIERS -> addWeaponStatModifiers(other.additionalWeaponStatModifiers);
+                    default -> { }
+                }
+            }
+            return this;
+        }
+
         @Nonnull
         public ItemVisualOverrides build() {
             return new ItemVisualOverrides(this);
@@ -0,0 +1,159 @@
+package org.herolias.tooltips.api;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Declares which items a {@link TooltipProvider} can contribute to.
+ * <p>
+ * The library compiles the applicability of all registered providers into a
+ * per-item dispatch table, so providers are only called for items they can
+ * actually affect. An item that no provider applies to costs a single lookup.
+ *
+ * <pre>{@code
+ * @Override
+ * public TooltipApplicability getApplicability() {
+ *     return TooltipApplicability.builder()
+ *         .itemIdPrefixes("Weapon_", "Tool_")
+ *         .itemIds("Armor_Chest_Iron")
+ *         .requiresMetadata()
+ *         .build();
+ * }
+ * }</pre>
+ *
+ * <h2>Matching rules</h2>
+ * <ul>
+ *   <li>If no item IDs, prefixes or categories are declared, every item matches.</li>
+ *   <li>Otherwise an item matches if it satisfies <em>any</em> of them: an exact
+ *       item ID, an item ID prefix, or one of the item's categories.</li>
+ *   <li>If {@link Builder#requiresMetadata()} is set, items without metadata
+ *       are skipped regardless of the above.</li>
+ * </ul>
+ */
+public final class TooltipApplicability {
+
+    private static final TooltipApplicability ALL_ITEMS = builder().build();
+
+    private final Set<String> itemIds;
+    private final List<String> itemIdPrefixes;
+    private final Set<String> categories;
+    private final boolean requiresMetadata;
+
+    private TooltipApplicability(Builder builder) {
+        this.itemIds = Collections.unmodifiableSet(new LinkedHashSet<>(builder.itemIds));
+        this.itemIdPrefixes = Collections.unmodifiableList(new ArrayList<>(builder.itemIdPrefixes));
+        this.categories = Collections.unmodifiableSet(new LinkedHashSet<>(builder.categories));
+        this.requiresMetadata = builder.requiresMetadata;
+    }
+
+    /** Applicability that matches every item (the default for providers). */
+    @Nonnull
+    public static TooltipApplicability allItems() {
+        return ALL_ITEMS;
+    }
+
+    /** Exact item IDs this provider applies to. */
+    @Nonnull
+    public Set<String> getItemIds() {
+        return itemIds;
+    }
+
+    /** Item ID prefixes this provider applies to (e.g. {@code "Weapon_"}). */
+    @Nonnull
+    public List<String> getItemIdPrefixes() {
+        return itemIdPrefixes;
+    }
+
+    /** Item categories this provider applies to. */
+    @Nonnull
+    public Set<String> getCategories() {
+        return categories;
+    }
+
+    /** Whether the provider only applies to items that carry metadata. */
+    public boolean requiresMetadata() {
+        return requiresMetadata;
+    }
+
+    /** Whether item categories are needed to evaluate {@link #matchesItem}. */
+    public boolean usesCategories() {
+        return !categories.isEmpty();
+    }
+
+    /**
+     * Tests whether an item ID matches this applicability, ignoring the
+     * metadata requirement.
+     *
+     * @param itemId         the real (base) item ID
+     * @param itemCategories the item's categories, or {@code null} if unknown
+     */
+    public boolean matchesItem(@Nonnull String itemId, @Nullable String[] itemCategories) {
+        if (itemIds.isEmpty() && itemIdPrefixes.isEmpty() && categories.isEmpty()) return true;
+        if (itemIds.contains(itemId)) return true;
+        for (String prefix : itemIdPrefixes) {
+            if (itemId.startsWith(prefix)) return true;
+        }
+        if (itemCategories != null && !categories.isEmpty()) {
+            for (String category : itemCategories) {
+                if (category != null && categories.contains(category)) return true;
+            }
+        }
+        return false;
+    }
+
+    @Nonnull
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Builder for {@link TooltipApplicability}.
+     */
+    public static final class Builder {
+        private final Set<String> itemIds = new LinkedHashSet<>();
+        private final List<String> itemIdPrefixes = new ArrayList<>();
+        private final Set<String> categories = new LinkedHashSet<>();
+        private boolean requiresMetadata;
+
+        private Builder() {}
+
+        /** Adds exact item IDs (e.g. {@code "Tool_Pickaxe_Adamantite"}). */
+        @Nonnull
+        public Builder itemIds(@Nonnull String... itemIds) {
+            this.itemIds.addAll(Arrays.asList(itemIds));
+            return this;
+        }
+
+        /** Adds item ID prefixes (e.g. {@code "Weapon_"}). */
+        @Nonnull
+        public Builder itemIdPrefixes(@Nonnull String... prefixes) {
+            this.itemIdPrefixes.addAll(Arrays.asList(prefixes));
+            return this;
+        }
+
+        /** Adds item categories, as listed in the item asset's {@code Categories}. */
+        @Nonnull
+        public Builder categories(@Nonnull String... categories) {
+            this.categories.addAll(Arrays.asList(categories));
+            return this;
+        }
+
+        /** Skips items that have no metadata at all. */
+        @Nonnull
+        public Builder requiresMetadata() {
+            this.requiresMetadata = true;
+            return this;
+        }
+
+        @Nonnull
+        public TooltipApplicability build() {
+            return new TooltipApplicability(this);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package org.herolias.tooltips.api;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.time.Duration;
+
+/**
+ * Declares whether, and for how long, the library may cache a
+ * {@link TooltipProvider}'s individual results.
+ * <p>
+ * Cached results are keyed by provider, item ID, metadata (or only the
+ * {@linkplain TooltipProvider#getMetadataPaths() declared metadata paths})
+ * and locale (if the provider is locale-sensitive). When a tooltip has to be
+ * recomposed, only providers without a valid cached result are called again.
+ *
+ * <ul>
+ *   <li>{@link #immutable()} — the output is a pure function of the item ID,
+ *       metadata and locale. Results survive {@code invalidateAll} and item
+ *       invalidations, and are only dropped when the provider itself is
+ *       invalidated, re-registered or unregistered.</li>
+ *   <li>{@link #ttl(Duration)} — the output may change over time. Results are
+ *       reused for at most the given duration, and are dropped by any
+ *       invalidation that covers them.</li>
+ *   <li>{@link #never()} — the provider is called on every recomposition
+ *       (the default).</li>
+ * </ul>
+ */
+public final class TooltipCachePolicy {
+
+    /** The kind of caching a policy allows. */
+    public enum Kind { IMMUTABLE, TTL, NEVER }
+
+    private static final TooltipCachePolicy IMMUTABLE = new TooltipCachePolicy(Kind.IMMUTABLE, null);
+    private static final TooltipCachePolicy NEVER = new TooltipCachePolicy(Kind.NEVER, null);
+
+    private final Kind kind;
+    @Nullable private final Duration ttl;
+
+    private TooltipCachePolicy(@Nonnull Kind kind, @Nullable Duration ttl) {
+        this.kind = kind;
+        this.ttl = ttl;
+    }
+
+    /** Results depend only on the item ID, metadata and locale; cache them until invalidated. */
+    @Nonnull
+    public static TooltipCachePolicy immutable() {
+        return IMMUTABLE;
+    }
+
+    /**
+     * Results may be reused for at most {@code ttl}.
+     *
+     * @throws IllegalArgumentException if {@code ttl} is zero or negative
+     */
+    @Nonnull
+    public static TooltipCachePolicy ttl(@Nonnull Duration ttl) {
+        if (ttl.isZero() || ttl.isNegative()) {
+            throw new IllegalArgumentException("ttl must be positive: " + ttl);
+        }
+        return new TooltipCachePolicy(Kind.TTL, ttl);
+    }
+
+    /** Results are never cached; the provider is called on every recomposition. */
+    @Nonnull
+    public static TooltipCachePolicy never() {
+        return NEVER;
+    }
+
+    @Nonnull
+    public Kind getKind() {
+        return kind;
+    }
+
+    /** The time-to-live for {@link Kind#TTL} policies, otherwise {@code null}. */
+    @Nullable
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    /** Whether results may be cached at all. */
+    public boolean isCacheable() {
+        return kind != Kind.NEVER;
+    }
+
+    @Override
+    public String toString() {
+        return kind == Kind.TTL ? "TTL(" + ttl + ")" : kind.name();
+    }
+}
@@ -1,5 +1,6 @@
 package org.herolias.tooltips.api;
 
+
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.ArrayList;
@@ -38,6 +39,7 @@ public final class TooltipData {
     private final String descriptionTranslationKey;
     private final String stableHashInput;
     @Nullable private final ItemVisualOverrides visualOverrides;
+    private final long fingerprint;
 
     private TooltipData(Builder builder) {
         this.lines = Collections.unmodifiableList(new ArrayList<>(builder.lines));
@@ -47,6 +49,13 @@ public final class TooltipData {
         this.descriptionTranslationKey = builder.descriptionTranslationKey;
         this.stableHashInput = builder.stableHashInput;
         this.visualOverrides = builder.visualOverrides;
+        Fingerprint h = new Fingerprint()
+                .putString(stableHashInput)
+                .putString(nameTranslationKey)
+                .putString(descriptionTranslationKey)
+                .putBoolean(visualOverrides != null);
+        if (visualOverrides != null) h.putLong(visualOverrides.getFingerprint());
+        this.fingerprint = h.hash();
     }
 
     /**
@@ -123,6 +132,16 @@ public final class TooltipData {
         return stableHashInput;
     }
 
+    /**
+     * A 64-bit fingerprint of everything that contributes to virtual-ID hashing:
+     * the {@linkplain #getStableHashInput() stable hash input}, the translation
+     * keys and the {@linkplain ItemVisualOverrides#getFingerprint() visual
+     * overrides}. Computed once at build time.
+     */
+    public long getFingerprint() {
+        return fingerprint;
+    }
+
     /** Whether this data only has additive lines (no destructive overrides). */
     public boolean isAdditive() {
         return nameOverride == null && descriptionOverride == null && visualOverrides == null && nameTranslationKey == null && descriptionTranslationKey == null;
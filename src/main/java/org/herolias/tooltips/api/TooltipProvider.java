@@ -2,6 +2,7 @@ package org.herolias.tooltips.api;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.util.Set;
 
 /**
  * Interface that mods implement to contribute dynamic tooltip content to items.
@@ -23,7 +24,9 @@ import javax.annotation.Nullable;
  * <h2>Performance</h2>
  * {@link #getTooltipData} is called on every outbound inventory packet for
  * every item. Implementations should be fast and avoid blocking I/O.
- * Return {@code null} for items this provider does not care about.
+ * Return {@code null} for items this provider does not care about, and
+ * declare a {@linkplain #getApplicability() narrower applicability} when
+ * the provider only handles a few item families.
  */
 public interface TooltipProvider {
 
@@ -43,6 +46,98 @@ public interface TooltipProvider {
      */
     int getPriority();
 
+    /**
+     * Declares which items this provider can contribute to.
+     * <p>
+     * Queried once when the provider is registered. The library only calls
+     * {@link #getTooltipData} for matching items, so a narrow applicability
+     * saves a call per item for everything else. The default applies to
+     * every item.
+     *
+     * @return this provider's applicability, never {@code null}
+     */
+    @Nonnull
+    default TooltipApplicability getApplicability() {
+        return TooltipApplicability.allItems();
+    }
+
+    /**
+     * Declares the metadata paths this provider reads, as dot-separated
+     * {@link ItemMetadataView} paths (e.g. {@code "SimpleEnchantments"}).
+     * <p>
+     * When every provider that applies to an item declares its paths, the
+     * library caches compositions by the values at those paths only. Items
+     * whose metadata differs elsewhere (durability, timestamps written by
+     * other mods, ...) then share one composition and one virtual ID.
+     * <p>
+     * Queried once when the provider is registered. The declaration must be
+     * complete: if the output depends on an undeclared path, players may see
+     * stale tooltips.
+     *
+     * @return the paths read by {@link #getTooltipData}, an empty set if the
+     *         provider ignores metadata, or {@code null} (the default) if it
+     *         may depend on the entire metadata
+     */
+    @Nullable
+    default Set<String> getMetadataPaths() {
+        return null;
+    }
+
+    /**
+     * Whether this provider only ever contributes additive lines (no name or
+     * description overrides, no translation keys, no visual overrides).
+     * <p>
+     * Providers are evaluated from the highest priority down. Once a
+     * higher-priority provider has set a description override, the additive
+     * lines of lower-priority providers would be discarded, so additive-only
+     * providers are not called at all for that item. Queried once when the
+     * provider is registered; the default is {@code false}.
+     * <p>
+     * If a provider that returns {@code true} still returns overrides, they
+     * are ignored (with a warning) and only its lines are used.
+     */
+    default boolean isAdditiveOnly() {
+        return false;
+    }
+
+    /**
+     * Declares whether the library may cache this provider's individual
+     * results, so that recomposing an item (after a cache miss or an
+     * invalidation) does not call this provider again.
+     * <p>
+     * Queried once when the provider is registered. The default,
+     * {@link TooltipCachePolicy#never()}, calls the provider on every
+     * recomposition.
+     */
+    @Nonnull
+    default TooltipCachePolicy getCachePolicy() {
+        return TooltipCachePolicy.never();
+    }
+
+    /**
+     * Whether this provider's output depends on the player's locale.
+     * <p>
+     * Compositions of locale-insensitive providers are cached once and shared
+     * by every language; only the original item description they are appended
+     * to is resolved per player. Queried once when the provider is registered.
+     * <p>
+     * The default returns {@code true} if this class overrides one of the
+     * locale-aware {@code getTooltipData} overloads. Override it to return
+     * {@code false} if you override the {@link ItemMetadataView} overload only
+     * to read parsed metadata and ignore the locale.
+     */
+    default boolean isLocaleSensitive() {
+        try {
+            Class<?> type = getClass();
+            return type.getMethod("getTooltipData", String.class, String.class, String.class)
+                            .getDeclaringClass() != TooltipProvider.class
+                    || type.getMethod("getTooltipData", String.class, ItemMetadataView.class, String.class)
+                            .getDeclaringClass() != TooltipProvider.class;
+        } catch (NoSuchMethodException e) {
+            return true;
+        }
+    }
+
     /**
      * Returns tooltip data for the given item, or {@code null} if this
      * provider has nothing to contribute.
@@ -77,4 +172,26 @@ public interface TooltipProvider {
                                        @Nullable String locale) {
         return getTooltipData(itemId, metadata);
     }
+
+    /**
+     * Variant of {@link #getTooltipData(String, String, String)} that receives
+     * the metadata as a shared, lazily parsed {@link ItemMetadataView}.
+     * <p>
+     * This is the method the library actually calls. Override it instead of
+     * the string overloads to avoid parsing the metadata JSON yourself: the
+     * view is parsed at most once per composition, no matter how many
+     * providers read it. The default implementation passes
+     * {@link ItemMetadataView#getRaw()} to the string-based overload.
+     *
+     * @param itemId   the real (base) item ID
+     * @param metadata read-only view of the item's metadata; check
+     *                 {@link ItemMetadataView#isPresent()} for items without metadata
+     * @param locale   the player's language code, or {@code null} if unknown
+     * @return a {@link TooltipData}, or {@code null} to indicate no tooltip modification
+     */
+    @Nullable
+    default TooltipData getTooltipData(@Nonnull String itemId, @Nonnull ItemMetadataView metadata,
+                                       @Nullable String locale) {
+        return getTooltipData(itemId, metadata.getRaw(), locale);
+    }
 }
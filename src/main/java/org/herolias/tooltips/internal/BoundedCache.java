@@ -0,0 +1,342 @@
+package org.herolias.tooltips.internal;
+
+import org.herolias.tooltips.api.CacheStats;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Concurrent, size-bounded cache with a <b>segmented LRU</b> eviction policy.
+ *
+ * <h2>Policy</h2>
+ * Every segment keeps two LRU lists:
+ * <ul>
+ *   <li><b>Probation</b> — newly inserted entries. Entries that are never
+ *       read again are evicted from here first.</li>
+ *   <li><b>Protected</b> — entries that were hit at least once after insertion.
+ *       When the protected list overflows, its least-recently used entry is
+ *       demoted back to probation instead of being evicted.</li>
+ * </ul>
+ * A burst of one-off keys (e.g. a chest full of unique items) therefore only
+ * churns the probation list and cannot flush hot entries out of the cache,
+ * while new keys are always admitted instead of being rejected when full.
+ *
+ * <h2>Thread safety</h2>
+ * The key space is split into {@value #SEGMENT_COUNT} independently locked
+ * segments, so concurrent packet threads rarely contend on the same lock.
+ * Hit, miss and eviction counters use {@link LongAdder}s.
+ * <p>
+ * {@link #computeIfAbsent} runs its loader outside of any lock, so an
+ * expensive load never blocks lookups of other keys, even in the same segment.
+ * <p>
+ * An optional {@link EvictionListener} is notified of entries evicted for
+ * size, outside of any segment lock. Explicit {@link #remove} and
+ * {@link #clear} calls do not notify it.
+ * <p>
+ * Neither keys nor values may be {@code null}.
+ */
+public final class BoundedCache<K, V> {
+
+    /** Number of lock stripes. Must be a power of two. */
+    private static final int SEGMENT_COUNT = 16;
+
+    /** Share of each segment reserved for entries that were hit at least once. */
+    private static final double PROTECTED_RATIO = 0.8;
+
+    private final Segment<K, V>[] segments;
+    private final int maximumSize;
+    @Nullable private final EvictionListener<K, V> evictionListener;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param maximumSize the approximate maximum number of entries; the bound is
+     *                    enforced per segment, so the effective limit is rounded
+     *                    up to a multiple of the segment count
+     */
+    public BoundedCache(int maximumSize) {
+        this(maximumSize, null);
+    }
+
+    /**
+     * @param maximumSize      see {@link #BoundedCache(int)}
+     * @param evictionListener called for every entry evicted to make room, or {@code null}
+     */
+    public BoundedCache(int maximumSize, @Nullable EvictionListener<K, V> evictionListener) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("maximumSize must be positive: " + maximumSize);
+        }
+        this.maximumSize = maximumSize;
+        this.evictionListener = evictionListener;
+        int segmentCapacity = Math.max(1, (maximumSize + SEGMENT_COUNT - 1) / SEGMENT_COUNT);
+        @SuppressWarnings("unchecked")
+        Segment<K, V>[] segments = (Segment<K, V>[]) new Segment<?, ?>[SEGMENT_COUNT];
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            segments[i] = new Segment<>(segmentCapacity);
+        }
+        this.segments = segments;
+    }
+
+    /**
+     * Returns the cached value, or {@code null} on a miss. A hit promotes the
+     * entry into the protected list.
+     */
+    @Nullable
+    public V get(@Nonnull K key) {
+        V value = segmentFor(key).get(key);
+        if (value != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return value;
+    }
+
+    /**
+     * Inserts or replaces a value. If the segment is full, the least-recently
+     * used probationary entry is evicted to make room.
+     */
+    public void put(@Nonnull K key, @Nonnull V value) {
+        notifyEvicted(segmentFor(key).put(key, value));
+    }
+
+    /**
+     * Returns the cached value, or computes, caches and returns it on a miss.
+     * <p>
+     * The loader runs without holding any lock. Concurrent misses on the same
+     * key may each run it; the first value to be inserted wins and is returned
+     * to all of them.
+     *
+     * @param loader computes the value; may return {@code null}, which is
+     *               returned without being cached
+     */
+    @Nullable
+    public V computeIfAbsent(@Nonnull K key, @Nonnull Function<? super K, ? extends V> loader) {
+        Segment<K, V> segment = segmentFor(key);
+        V value = segment.get(key);
+        if (value != null) {
+            hits.increment();
+            return value;
+        }
+        misses.increment();
+
+        V created = loader.apply(key);
+        if (created == null) return null;
+        Insertion<K, V> insertion = segment.putIfAbsent(key, created);
+        notifyEvicted(insertion.evicted);
+        return insertion.value;
+    }
+
+    private void notifyEvicted(@Nullable List<Node<K, V>> evicted) {
+        if (evicted == null) return;
+        evictions.add(evicted.size());
+        if (evictionListener != null) {
+            for (Node<K, V> node : evicted) {
+                evictionListener.onEviction(node.key, node.value);
+            }
+        }
+    }
+
+    /**
+     * Whether the key is currently cached. Unlike {@link #get}, this neither
+     * promotes the entry nor counts as a hit or miss.
+     */
+    public boolean containsKey(@Nonnull K key) {
+        return segmentFor(key).containsKey(key);
+    }
+
+    /**
+     * Removes a single entry.
+     *
+     * @return the removed value, or {@code null} if the key was not cached
+     */
+    @Nullable
+    public V remove(@Nonnull K key) {
+        return segmentFor(key).remove(key);
+    }
+
+    /**
+     * Removes every entry whose value matches the filter. The filter runs
+     * under its segment's lock, one segment at a time.
+     *
+     * @return the number of entries removed
+     */
+    public int removeIf(@Nonnull Predicate<? super V> filter) {
+        int removed = 0;
+        for (Segment<K, V> segment : segments) {
+            removed += segment.removeIf(filter);
+        }
+        return removed;
+    }
+
+    /** Removes all entries. Statistics are preserved. */
+    public void clear() {
+        for (Segment<K, V> segment : segments) {
+            segment.clear();
+        }
+    }
+
+    /** Current number of cached entries (sum over all segments). */
+    public int size() {
+        int size = 0;
+        for (Segment<K, V> segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    /** Returns a point-in-time snapshot of the cache counters. */
+    @Nonnull
+    public CacheStats stats() {
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), size(), maximumSize);
+    }
+
+    @Nonnull
+    private Segment<K, V> segmentFor(@Nonnull K key) {
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        return segments[h & (SEGMENT_COUNT - 1)];
+    }
+
+    /**
+     * Receives entries evicted for size.
+     */
+    @FunctionalInterface
+    public interface EvictionListener<K, V> {
+        void onEviction(@Nonnull K key, @Nonnull V value);
+    }
+
+    // ─────────────────────────────────────────────────────────────────────
+    //  Segment
+    // ─────────────────────────────────────────────────────────────────────
+
+    /**
+     * Stored entry. Keeping the original key instance lets callers look up
+     * with a transient (e.g. reused) key object without it ever being retained.
+     */
+    private static final class Node<K, V> {
+        final K key;
+        V value;
+
+        Node(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    /** Outcome of {@link Segment#putIfAbsent}: the value now cached, and any evictions. */
+    private static final class Insertion<K, V> {
+        final V value;
+        @Nullable final List<Node<K, V>> evicted;
+
+        Insertion(V value, @Nullable List<Node<K, V>> evicted) {
+            this.value = value;
+            this.evicted = evicted;
+        }
+    }
+
+    private static final class Segment<K, V> {
+        private final int capacity;
+        private final int protectedCapacity;
+
+        /** Insertion-ordered: eldest entry is the next eviction candidate. */
+        private final LinkedHashMap<K, Node<K, V>> probation = new LinkedHashMap<>();
+        /** Access-ordered: eldest entry is the next demotion candidate. */
+        private final LinkedHashMap<K, Node<K, V>> protectedEntries = new LinkedHashMap<>(16, 0.75f, true);
+
+        Segment(int capacity) {
+            this.capacity = capacity;
+            this.protectedCapacity = Math.max(1, (int) (capacity * PROTECTED_RATIO));
+        }
+
+        synchronized V get(K key) {
+            Node<K, V> node = protectedEntries.get(key);
+            if (node != null) return node.value;
+
+            node = probation.remove(key);
+            if (node == null) return null;
+            protectedEntries.put(node.key, node);
+            demoteOverflow();
+            return node.value;
+        }
+
+        /** @return the entries evicted to make room, or {@code null} if none */
+        synchronized List<Node<K, V>> put(K key, V value) {
+            Node<K, V> node = protectedEntries.get(key);
+            if (node == null) node = probation.get(key);
+            if (node != null) {
+                node.value = value;
+                return null;
+            }
+            probation.put(key, new Node<>(key, value));
+            return evictOverflow();
+        }
+
+        /** Inserts the value unless the key is already cached. */
+        synchronized Insertion<K, V> putIfAbsent(K key, V value) {
+            Node<K, V> node = protectedEntries.get(key);
+            if (node == null) node = probation.get(key);
+            if (node != null) return new Insertion<>(node.value, null);
+            probation.put(key, new Node<>(key, value));
+            return new Insertion<>(value, evictOverflow());
+        }
+
+        synchronized boolean containsKey(K key) {
+            return protectedEntries.containsKey(key) || probation.containsKey(key);
+        }
+
+        synchronized V remove(K key) {
+            Node<K, V> node = protectedEntries.remove(key);
+            if (node == null) node = probation.remove(key);
+            return node != null ? node.value : null;
+        }
+
+        synchronized int removeIf(Predicate<? super V> filter) {
+            int before = probation.size() + protectedEntries.size();
+            probation.values().removeIf(node -> filter.test(node.value));
+            protectedEntries.values().removeIf(node -> filter.test(node.value));
+            return before - probation.size() - protectedEntries.size();
+        }
+
+        synchronized void clear() {
+            probation.clear();
+            protectedEntries.clear();
+        }
+
+        synchronized int size() {
+            return probation.size() + protectedEntries.size();
+        }
+
+        private void demoteOverflow() {
+            while (protectedEntries.size() > protectedCapacity) {
+                Iterator<Node<K, V>> it = protectedEntries.values().iterator();
+                Node<K, V> eldest = it.next();
+                it.remove();
+                probation.put(eldest.key, eldest);
+            }
+        }
+
+        @Nullable
+        private List<Node<K, V>> evictOverflow() {
+            List<Node<K, V>> evicted = null;
+            while (probation.size() + protectedEntries.size() > capacity) {
+                LinkedHashMap<K, Node<K, V>> victimList = probation.isEmpty() ? protectedEntries : probation;
+                Iterator<Node<K, V>> it = victimList.values().iterator();
+                Node<K, V> victim = it.next();
+                it.remove();
+                if (evicted == null) evicted = new ArrayList<>(1);
+                evicted.add(victim);
+            }
+            return evicted;
+        }
+    }
+}
@@ -5,15 +5,23 @@ import com.hypixel.hytale.protocol.UpdateType;
 import com.hypixel.hytale.protocol.packets.assets.UpdateTranslations;
 import com.hypixel.hytale.server.core.universe.PlayerRef;
 import com.hypixel.hytale.server.core.universe.Universe;
+import org.herolias.tooltips.api.DynamicTooltipsApi;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
 
 /**
  * Manages global tooltip properties that affect all items of a specific base type,
  * without using virtual IDs. This is useful for system-wide tooltips that everyone should see.
+ *
+ * <h2>Thread safety</h2>
+ * All global lines live in one immutable {@code Overrides} snapshot. Writers
+ * copy it, apply their changes and publish the result with a single volatile
+ * write, serialized by {@code writeLock}. Readers never lock: each read
+ * works on one snapshot, so it sees a {@linkplain #applyBatch batch} either
+ * completely or not at all.
  */
 public class GlobalTooltipManager {
 
@@ -21,9 +29,11 @@ public class GlobalTooltipManager {
 
     private final VirtualItemRegistry virtualItemRegistry;
 
-    // Track additive and replace lines separately. Replace takes precedence over additive.
-    private final Map<String, List<GlobalTooltipLine>> additiveLines = new ConcurrentHashMap<>();
-    private final Map<String, List<GlobalTooltipLine>> replacedLines = new ConcurrentHashMap<>();
+    /** Current global lines; replaced as a whole, never mutated. */
+    private volatile Overrides overrides = Overrides.EMPTY;
+
+    /** Serializes writers of {@link #overrides}. */
+    private final Object writeLock = new Object();
 
     public GlobalTooltipManager(@Nonnull VirtualItemRegistry virtualItemRegistry) {
         this.virtualItemRegistry = virtualItemRegistry;
@@ -35,7 +45,8 @@ public class GlobalTooltipManager {
      * @param line the line to add
      */
     public void addGlobalLine(@Nonnull String baseItemId, @Nonnull String line) {
-        additiveLines.computeIfAbsent(baseItemId, k -> new java.util.concurrent.CopyOnWriteArrayList<>()).add(new GlobalTooltipLine(line, false));
+        GlobalTooltipLine mapped = new GlobalTooltipLine(line, false);
+        update(draft -> draft.appendLine(baseItemId, mapped));
         broadcastUpdates(Collections.singleton(baseItemId));
     }
 
@@ -45,7 +56,8 @@ public class GlobalTooltipManager {
      * @param translationKey the key to add
      */
     public void addGlobalTranslationLine(@Nonnull String baseItemId, @Nonnull String translationKey) {
-        additiveLines.computeIfAbsent(baseItemId, k -> new java.util.concurrent.CopyOnWriteArrayList<>()).add(new GlobalTooltipLine(translationKey, true));
+        GlobalTooltipLine mapped = new GlobalTooltipLine(translationKey, true);
+        update(draft -> draft.appendLine(baseItemId, mapped));
         broadcastUpdates(Collections.singleton(baseItemId));
     }
 
@@ -55,9 +67,8 @@ public class GlobalTooltipManager {
      * @param lines the lines to replace the description with
      */
     public void replaceGlobalTooltip(@Nonnull String baseItemId, @Nonnull String[] lines) {
-        List<GlobalTooltipLine> mapped = new ArrayList<>();
-        for (String line : lines) mapped.add(new GlobalTooltipLine(line, false));
-        replacedLines.put(baseItemId, mapped);
+        List<GlobalTooltipLine> mapped = mapLines(lines, false);
+        update(draft -> draft.replaceLines(baseItemId, mapped));
         broadcastUpdates(Collections.singleton(baseItemId));
     }
 
@@ -67,9 +78,8 @@ public class GlobalTooltipManager {
      * @param translationKeys the keys to replace the description with
      */
     public void replaceGlobalTranslationTooltip(@Nonnull String baseItemId, @Nonnull String[] translationKeys) {
-        List<GlobalTooltipLine> mapped = new ArrayList<>();
-        for (String key : translationKeys) mapped.add(new GlobalTooltipLine(key, true));
-        replacedLines.put(baseItemId, mapped);
+        List<GlobalTooltipLine> mapped = mapLines(translationKeys, true);
+        update(draft -> draft.replaceLines(baseItemId, mapped));
         broadcastUpdates(Collections.singleton(baseItemId));
     }
 
@@ -78,66 +88,277 @@ public class GlobalTooltipManager {
      * @param baseItemId the base item ID
      */
     public void clearGlobalTooltips(@Nonnull String baseItemId) {
-        boolean removedAdd = additiveLines.remove(baseItemId) != null;
-        boolean removedRep = replacedLines.remove(baseItemId) != null;
-        if (removedAdd || removedRep) {
+        if (update(draft -> draft.clearLines(baseItemId))) {
             broadcastUpdates(Collections.singleton(baseItemId));
         }
     }
 
+    /**
+     * Applies one change to a copy of the current overrides and publishes it.
+     *
+     * @return whether the change modified anything (nothing is published otherwise)
+     */
+    private boolean update(@Nonnull Predicate<Draft> change) {
+        synchronized (writeLock) {
+            Draft draft = new Draft(overrides);
+            if (!change.test(draft)) return false;
+            overrides = draft.publish();
+            return true;
+        }
+    }
+
+    @Nonnull
+    private static List<GlobalTooltipLine> mapLines(@Nonnull String[] lines, boolean isTranslationKey) {
+        List<GlobalTooltipLine> mapped = new ArrayList<>(lines.length);
+        for (String line : lines) mapped.add(new GlobalTooltipLine(line, isTranslationKey));
+        return Collections.unmodifiableList(mapped);
+    }
+
+    /**
+     * Immutable snapshot of every global line. Replace takes precedence over
+     * additive. Neither the maps nor the lists in them are ever mutated once
+     * published.
+     */
+    private static final class Overrides {
+        static final Overrides EMPTY = new Overrides(Collections.emptyMap(), Collections.emptyMap());
+
+        final Map<String, List<GlobalTooltipLine>> additiveLines;
+        final Map<String, List<GlobalTooltipLine>> replacedLines;
+
+        Overrides(Map<String, List<GlobalTooltipLine>> additiveLines,
+                  Map<String, List<GlobalTooltipLine>> replacedLines) {
+            this.additiveLines = additiveLines;
+            this.replacedLines = replacedLines;
+        }
+
+        /** Base item IDs with any global lines. */
+        @Nonnull
+        Set<String> itemIds() {
+            Set<String> ids = new HashSet<>(additiveLines.keySet());
+            ids.addAll(replacedLines.keySet());
+            return ids;
+        }
+    }
+
+    /**
+     * Working copy of an {@link Overrides} snapshot. The maps are copied up
+     * front; an additive list is copied the first time this draft appends to
+     * it and then appended to in place, so a batch of many lines for one item
+     * stays linear.
+     */
+    private static final class Draft {
+        private final Map<String, List<GlobalTooltipLine>> additiveLines;
+        private final Map<String, List<GlobalTooltipLine>> replacedLines;
+        private final Set<String> ownedAdditive = new HashSet<>();
+
+        Draft(@Nonnull Overrides base) {
+            this.additiveLines = new HashMap<>(base.additiveLines);
+            this.replacedLines = new HashMap<>(base.replacedLines);
+        }
+
+        boolean appendLine(@Nonnull String baseItemId, @Nonnull GlobalTooltipLine line) {
+            List<GlobalTooltipLine> lines = additiveLines.get(baseItemId);
+            if (!ownedAdditive.contains(baseItemId)) {
+                lines = lines != null ? new ArrayList<>(lines) : new ArrayList<>();
+                additiveLines.put(baseItemId, lines);
+                ownedAdditive.add(baseItemId);
+            }
+            lines.add(line);
+            return true;
+        }
+
+        boolean replaceLines(@Nonnull String baseItemId, @Nonnull List<GlobalTooltipLine> lines) {
+            replacedLines.put(baseItemId, lines);
+            return true;
+        }
+
+        boolean clearLines(@Nonnull String baseItemId) {
+            ownedAdditive.remove(baseItemId);
+            boolean removedAdd = additiveLines.remove(baseItemId) != null;
+            boolean removedRep = replacedLines.remove(baseItemId) != null;
+            return removedAdd || removedRep;
+        }
+
+        /** Freezes this draft into a snapshot. The draft must not be used afterwards. */
+        @Nonnull
+        Overrides publish() {
+            for (String baseItemId : ownedAdditive) {
+                additiveLines.computeIfPresent(baseItemId, (k, lines) -> Collections.unmodifiableList(lines));
+            }
+            return new Overrides(Collections.unmodifiableMap(additiveLines),
+                    Collections.unmodifiableMap(replacedLines));
+        }
+    }
+
+    // ─────────────────────────────────────────────────────────────────────
+    //  Batches
+    // ─────────────────────────────────────────────────────────────────────
+
+    /** Starts an empty batch; apply it with {@link #applyBatch(Batch)}. */
+    @Nonnull
+    public Batch newBatch() {
+        return new Batch();
+    }
+
+    /**
+     * Applies every change recorded in the batch as one atomic update, then
+     * sends each online player a single translation update covering all
+     * affected items. Readers see either none or all of the batch.
+     *
+     * @return the number of base items whose global tooltip changed
+     * @throws IllegalStateException if the batch was already applied
+     */
+    public int applyBatch(@Nonnull Batch batch) {
+        Set<String> changed = new LinkedHashSet<>();
+        synchronized (writeLock) {
+            if (batch.applied) throw new IllegalStateException("Batch was already applied");
+            batch.applied = true;
+
+            Draft draft = new Draft(overrides);
+            for (Batch.Operation operation : batch.operations) {
+                if (operation.change.test(draft)) changed.add(operation.baseItemId);
+            }
+            if (!changed.isEmpty()) overrides = draft.publish();
+        }
+        broadcastUpdates(changed);
+        return changed.size();
+    }
+
+    /**
+     * Global tooltip changes recorded for {@link #applyBatch(Batch)}. Nothing
+     * is applied or sent until then, so a batch that is never applied (e.g.
+     * because the code filling it threw) has no effect.
+     */
+    public final class Batch implements DynamicTooltipsApi.GlobalTooltipBatch {
+
+        private final List<Operation> operations = new ArrayList<>();
+        private boolean applied;
+
+        private Batch() {}
+
+        @Nonnull
+        @Override
+        public Batch addGlobalLine(@Nonnull String baseItemId, @Nonnull String line) {
+            GlobalTooltipLine mapped = new GlobalTooltipLine(line, false);
+            return record(baseItemId, draft -> draft.appendLine(baseItemId, mapped));
+        }
+
+        @Nonnull
+        @Override
+        public Batch addGlobalTranslationLine(@Nonnull String baseItemId, @Nonnull String translationKey) {
+            GlobalTooltipLine mapped = new GlobalTooltipLine(translationKey, true);
+            return record(baseItemId, draft -> draft.appendLine(baseItemId, mapped));
+        }
+
+        @Nonnull
+        @Override
+        public Batch replaceGlobalTooltip(@Nonnull String baseItemId, @Nonnull String... lines) {
+            List<GlobalTooltipLine> mapped = mapLines(lines, false);
+            return record(baseItemId, draft -> draft.replaceLines(baseItemId, mapped));
+        }
+
+        @Nonnull
+        @Override
+        public Batch replaceGlobalTranslationTooltip(@Nonnull String baseItemId, @Nonnull String... translationKeys) {
+            List<GlobalTooltipLine> mapped = mapLines(translationKeys, true);
+            return record(baseItemId, draft -> draft.replaceLines(baseItemId, mapped));
+        }
+
+        @Nonnull
+        @Override
+        public Batch clearGlobalTooltips(@Nonnull String baseItemId) {
+            return record(baseItemId, draft -> draft.clearLines(baseItemId));
+        }
+
+        private Batch record(@Nonnull String baseItemId, @Nonnull Predicate<Draft> change) {
+            if (applied) throw new IllegalStateException("Batch was already applied");
+            operations.add(new Operation(baseItemId, change));
+            return this;
+        }
+
+        /** One recorded change; {@code change} returns whether it modified the draft. */
+        private static final class Operation {
+            final String baseItemId;
+            final Predicate<Draft> change;
+
+            Operation(String baseItemId, Predicate<Draft> change) {
+                this.baseItemId = baseItemId;
+                this.change = change;
+            }
+        }
+    }
+
+    // ─────────────────────────────────────────────────────────────────────
+    //  Sending
+    // ─────────────────────────────────────────────────────────────────────
+
     /**
      * Invoked when a player joins or needs a full refresh of all global items.
      * @param playerRef the player reference
      */
     public void sendAllUpdates(@Nonnull PlayerRef playerRef) {
-        Set<String> allIds = new HashSet<>();
-        allIds.addAll(additiveLines.keySet());
-        allIds.addAll(replacedLines.keySet());
-        sendUpdates(playerRef, allIds);
+        Overrides current = overrides;
+        sendUpdates(playerRef, buildTranslations(current, current.itemIds(), localeOf(playerRef)));
     }
 
     /**
-     * Broadcasts updates to all online players.
+     * Broadcasts updates to all online players. The translations are built
+     * once per locale and shared by every player using it.
      */
     private void broadcastUpdates(@Nonnull Set<String> baseItemIds) {
-        if (Universe.get() == null) return;
-        
+        if (baseItemIds.isEmpty() || Universe.get() == null) return;
+
+        // Read after publishing, so the latest state is what goes out
+        Overrides current = overrides;
+        Map<String, Map<String, String>> byLocale = new HashMap<>();
         for (PlayerRef playerRef : Universe.get().getPlayers()) {
             if (playerRef == null || !playerRef.isValid()) continue;
-            sendUpdates(playerRef, baseItemIds);
+            Map<String, String> translations = byLocale.computeIfAbsent(localeOf(playerRef),
+                    locale -> buildTranslations(current, baseItemIds, locale));
+            sendUpdates(playerRef, translations);
         }
     }
 
-    /**
-     * Sends the specific set of base item global updates to a given player.
-     */
-    private void sendUpdates(@Nonnull PlayerRef playerRef, @Nonnull Set<String> baseItemIds) {
-        if (baseItemIds.isEmpty()) return;
-        
+    @Nonnull
+    private static String localeOf(@Nonnull PlayerRef playerRef) {
         String locale = playerRef.getLanguage();
-        if (locale == null || locale.isEmpty()) locale = "en-US";
+        return locale == null || locale.isEmpty() ? "en-US" : locale;
+    }
 
+    /**
+     * Computes the global descriptions of the given base items in one locale,
+     * keyed by each item's description translation key.
+     */
+    @Nonnull
+    private Map<String, String> buildTranslations(@Nonnull Overrides current, @Nonnull Set<String> baseItemIds,
+                                                  @Nonnull String locale) {
         Map<String, String> translations = new HashMap<>();
-
         for (String baseItemId : baseItemIds) {
             String translationKey = virtualItemRegistry.getItemDescriptionKey(baseItemId);
             if (translationKey == null || translationKey.trim().isEmpty()) continue;
-            
-            String computed = getGlobalDescription(baseItemId, locale);
+
+            String computed = describe(current, baseItemId, locale);
             if (computed != null) {
                 translations.put(translationKey, computed);
             }
         }
+        return translations;
+    }
 
-        if (!translations.isEmpty()) {
-            try {
-                UpdateTranslations packet = new UpdateTranslations(UpdateType.AddOrUpdate, translations);
-                if (playerRef.getPacketHandler() != null) {
-                    playerRef.getPacketHandler().writeNoCache(packet);
-                }
-            } catch (Exception e) {
-                LOGGER.atWarning().log("Failed to send global tooltip updates: " + e.getMessage());
+    /**
+     * Sends precomputed global translations to a given player.
+     */
+    private void sendUpdates(@Nonnull PlayerRef playerRef, @Nonnull Map<String, String> translations) {
+        if (translations.isEmpty()) return;
+
+        try {
+            // Each packet gets its own map, as the map may be shared by other players
+            UpdateTranslations packet = new UpdateTranslations(UpdateType.AddOrUpdate, new HashMap<>(translations));
+            if (playerRef.getPacketHandler() != null) {
+                playerRef.getPacketHandler().writeNoCache(packet);
             }
+        } catch (Exception e) {
+            LOGGER.atWarning().log("Failed to send global tooltip updates: " + e.getMessage());
         }
     }
 
@@ -150,28 +371,26 @@ public class GlobalTooltipManager {
         
         if (locale == null || locale.isEmpty()) locale = "en-US";
         
-        Set<String> allIds = new HashSet<>();
-        allIds.addAll(additiveLines.keySet());
-        allIds.addAll(replacedLines.keySet());
-        
-        for (String baseItemId : allIds) {
+        Overrides current = overrides;
+        for (String baseItemId : current.itemIds()) {
             String key = virtualItemRegistry.getItemDescriptionKey(baseItemId);
             if (key == null || key.trim().isEmpty()) continue;
             
-            String computed = getGlobalDescriptionFromMap(baseItemId, packet.translations, locale);
+            String computed = getGlobalDescriptionFromMap(current, baseItemId, packet.translations, locale);
             if (computed != null) {
                 packet.translations.put(key, computed);
             }
         }
     }
 
-    private String getGlobalDescriptionFromMap(String baseItemId, Map<String, String> translationsMap, String fallbackLocale) {
-        List<GlobalTooltipLine> replace = replacedLines.get(baseItemId);
+    private String getGlobalDescriptionFromMap(Overrides current, String baseItemId,
+                                               Map<String, String> translationsMap, String fallbackLocale) {
+        List<GlobalTooltipLine> replace = current.replacedLines.get(baseItemId);
         if (replace != null) {
             return String.join("\n", resolveLinesFromMap(replace, translationsMap, fallbackLocale));
         }
         
-        List<GlobalTooltipLine> add = additiveLines.get(baseItemId);
+        List<GlobalTooltipLine> add = current.additiveLines.get(baseItemId);
         if (add != null && !add.isEmpty()) {
             String descKey = virtualItemRegistry.getItemDescriptionKey(baseItemId);
             String original = translationsMap.get(descKey);
@@ -217,13 +436,18 @@ public class GlobalTooltipManager {
      */
     @Nullable
     public String getGlobalDescription(@Nonnull String baseItemId, @Nonnull String locale) {
+        return describe(overrides, baseItemId, locale);
+    }
+
+    @Nullable
+    private String describe(@Nonnull Overrides current, @Nonnull String baseItemId, @Nonnull String locale) {
         // Replace overrides completely overwrite everything else
-        List<GlobalTooltipLine> replace = replacedLines.get(baseItemId);
+        List<GlobalTooltipLine> replace = current.replacedLines.get(baseItemId);
         if (replace != null) {
             return String.join("\n", resolveLines(replace, locale));
         }
         
-        List<GlobalTooltipLine> add = additiveLines.get(baseItemId);
+        List<GlobalTooltipLine> add = current.additiveLines.get(baseItemId);
         if (add != null && !add.isEmpty()) {
             String original = virtualItemRegistry.getOriginalDescription(baseItemId, locale);
             StringBuilder sb = new StringBuilder();
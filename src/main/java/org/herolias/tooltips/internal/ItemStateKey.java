@@ -0,0 +1,75 @@
+package org.herolias.tooltips.internal;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Objects;
+
+/**
+ * Composite cache key for one item state: {@code (itemId, metadata, locale)}.
+ * <p>
+ * Holds references to the caller's strings instead of concatenating them,
+ * so building a key never copies the (potentially multi-kilobyte) metadata
+ * JSON. The hash is computed once when the key is set.
+ *
+ * <h2>Lookup probes</h2>
+ * {@link #probe} returns a per-thread, reusable instance for cache lookups,
+ * which makes a cache hit allocation-free. A probe is only valid until the
+ * next {@code probe} call on the same thread and must <b>never</b> be stored
+ * in a map — use {@link #of} for keys that are inserted.
+ */
+final class ItemStateKey {
+
+    private static final ThreadLocal<ItemStateKey> PROBE = ThreadLocal.withInitial(ItemStateKey::new);
+
+    private String itemId;
+    @Nullable private String metadata;
+    @Nullable private String locale;
+    private int hash;
+
+    private ItemStateKey() {}
+
+    /** Creates an immutable key suitable for insertion into a cache. */
+    @Nonnull
+    static ItemStateKey of(@Nonnull String itemId, @Nullable String metadata, @Nullable String locale) {
+        return new ItemStateKey().set(itemId, metadata, locale);
+    }
+
+    /**
+     * Returns this thread's reusable lookup key, re-pointed at the given strings.
+     * See the class documentation for the restrictions on probes.
+     */
+    @Nonnull
+    static ItemStateKey probe(@Nonnull String itemId, @Nullable String metadata, @Nullable String locale) {
+        return PROBE.get().set(itemId, metadata, locale);
+    }
+
+    @Nonnull
+    private ItemStateKey set(@Nonnull String itemId, @Nullable String metadata, @Nullable String locale) {
+        this.itemId = itemId;
+        this.metadata = metadata;
+        this.locale = locale;
+        int h = itemId.hashCode();
+        h = 31 * h + (metadata != null ? metadata.hashCode() : 0);
+        h = 31 * h + (locale != null ? locale.hashCode() : 0);
+        this.hash = h;
+        return this;
+    }
+
+    @Nonnull String getItemId() { return itemId; }
+    @Nullable String getLocale() { return locale; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ItemStateKey other)) return false;
+        return hash == other.hash
+                && itemId.equals(other.itemId)
+                && Objects.equals(locale, other.locale)
+                && Objects.equals(metadata, other.metadata);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+}
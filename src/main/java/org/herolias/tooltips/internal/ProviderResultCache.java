@@ -0,0 +1,168 @@
+package org.herolias.tooltips.internal;
+
+import org.herolias.tooltips.api.CacheStats;
+import org.herolias.tooltips.api.TooltipCachePolicy;
+import org.herolias.tooltips.api.TooltipData;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache of individual provider results, keyed by
+ * {@code (providerId, itemId, metadataKey, locale)}.
+ * <p>
+ * Sits below the item-state cache: when an item has to be recomposed (cache
+ * miss, stale epoch), providers with a valid cached result are not called
+ * again. Which results may be cached, and for how long, is declared by each
+ * provider's {@link TooltipCachePolicy}.
+ *
+ * <h2>Invalidation</h2>
+ * Invalidation is lazy. Every entry records the provider generation, item
+ * generation and registry epoch it was computed under; bumping a generation
+ * makes the matching entries stale without touching them.
+ * <ul>
+ *   <li>All entries are stale once their provider's generation moves on.</li>
+ *   <li>{@link TooltipCachePolicy.Kind#TTL TTL} entries are additionally stale
+ *       after their TTL, after their item's generation moves on, or when the
+ *       registry epoch changes.</li>
+ * </ul>
+ */
+final class ProviderResultCache {
+
+    /** Maximum cached provider results before cold entries are evicted. */
+    private static final int MAX_ENTRIES = 16384;
+
+    private final BoundedCache<Key, Entry> cache = new BoundedCache<>(MAX_ENTRIES);
+    private final ConcurrentHashMap<String, AtomicLong> providerGenerations = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, AtomicLong> itemGenerations = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the cached entry for the key if it is still valid, else {@code null}.
+     * A returned entry's {@link Entry#data} may itself be {@code null} (the
+     * provider had nothing to contribute).
+     */
+    @Nullable
+    Entry get(@Nonnull Key key, long epoch) {
+        Entry entry = cache.get(key);
+        if (entry == null) return null;
+        if (entry.providerGeneration != generation(providerGenerations, key.providerId)) return null;
+        if (entry.expiresAtNanos != Long.MAX_VALUE) {
+            if (entry.epoch != epoch
+                    || entry.itemGeneration != generation(itemGenerations, key.itemId)
+                    || System.nanoTime() - entry.expiresAtNanos >= 0) {
+                return null;
+            }
+        }
+        return entry;
+    }
+
+    /**
+     * Captures the generations a provider call is about to run under. Taken
+     * <em>before</em> the call, so an invalidation racing with it leaves the
+     * result stale.
+     */
+    @Nonnull
+    Entry prepare(@Nonnull Key key, @Nonnull TooltipCachePolicy policy, long epoch) {
+        long expiresAt = policy.getKind() == TooltipCachePolicy.Kind.TTL
+                ? System.nanoTime() + policy.getTtl().toNanos()
+                : Long.MAX_VALUE;
+        return new Entry(generation(providerGenerations, key.providerId),
+                generation(itemGenerations, key.itemId), epoch, expiresAt, null);
+    }
+
+    /** Caches the provider's result under the generations of a prepared entry. */
+    void put(@Nonnull Key key, @Nonnull Entry prepared, @Nullable TooltipData data) {
+        cache.put(key, new Entry(prepared.providerGeneration, prepared.itemGeneration,
+                prepared.epoch, prepared.expiresAtNanos, data));
+    }
+
+    /** Makes every cached result of the provider stale. */
+    void invalidateProvider(@Nonnull String providerId) {
+        providerGenerations.computeIfAbsent(providerId, k -> new AtomicLong()).incrementAndGet();
+    }
+
+    /** Makes the TTL-cached results of every provider for the item stale. */
+    void invalidateItem(@Nonnull String itemId) {
+        itemGenerations.computeIfAbsent(itemId, k -> new AtomicLong()).incrementAndGet();
+    }
+
+    void clear() {
+        cache.clear();
+    }
+
+    @Nonnull
+    CacheStats stats() {
+        return cache.stats();
+    }
+
+    private static long generation(@Nonnull ConcurrentHashMap<String, AtomicLong> generations,
+                                   @Nonnull String id) {
+        AtomicLong generation = generations.get(id);
+        return generation != null ? generation.get() : 0;
+    }
+
+    // ─────────────────────────────────────────────────────────────────────
+    //  Key & entry
+    // ─────────────────────────────────────────────────────────────────────
+
+    static final class Key {
+        final String providerId;
+        final String itemId;
+        /** Raw metadata, the provider's own metadata projection, or {@code null}. */
+        @Nullable final String metadataKey;
+        /** The locale, or {@code null} for locale-insensitive providers. */
+        @Nullable final String locale;
+        private final int hash;
+
+        Key(@Nonnull String providerId, @Nonnull String itemId,
+            @Nullable String metadataKey, @Nullable String locale) {
+            this.providerId = providerId;
+            this.itemId = itemId;
+            this.metadataKey = metadataKey;
+            this.locale = locale;
+            int h = providerId.hashCode();
+            h = 31 * h + itemId.hashCode();
+            h = 31 * h + (metadataKey != null ? metadataKey.hashCode() : 0);
+            h = 31 * h + (locale != null ? locale.hashCode() : 0);
+            this.hash = h;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key other)) return false;
+            return hash == other.hash
+                    && providerId.equals(other.providerId)
+                    && itemId.equals(other.itemId)
+                    && Objects.equals(locale, other.locale)
+                    && Objects.equals(metadataKey, other.metadataKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    static final class Entry {
+        final long providerGeneration;
+        final long itemGeneration;
+        final long epoch;
+        /** {@code Long.MAX_VALUE} for immutable results. */
+        final long expiresAtNanos;
+        /** The provider's result; {@code null} if it had nothing to contribute. */
+        @Nullable final TooltipData data;
+
+        private Entry(long providerGeneration, long itemGeneration, long epoch, long expiresAtNanos,
+                      @Nullable TooltipData data) {
+            this.providerGeneration = providerGeneration;
+            this.itemGeneration = itemGeneration;
+            this.epoch = epoch;
+            this.expiresAtNanos = expiresAtNanos;
+            this.data = data;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package org.herolias.tooltips.internal;
+
+import com.hypixel.hytale.logger.HytaleLogger;
+import com.hypixel.hytale.server.core.HytaleServer;
+
+import javax.annotation.Nonnull;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Spreads bulk player refreshes over a time window.
+ * <p>
+ * A bulk refresh re-sends every player's inventory. Sending them all at once
+ * spikes CPU and bandwidth for a single tick, so each player is given a start
+ * offset within the window instead, in the order they were passed in. The
+ * refreshes themselves run on virtual threads, at most
+ * {@link #MAX_CONCURRENT_REFRESHES} at a time.
+ *
+ * <h2>Coalescing</h2>
+ * A player who is already queued is not queued again: the queued refresh
+ * reads the latest state when it runs. A player is removed from the queue
+ * just before their refresh starts, so a change made during a refresh
+ * queues another one.
+ */
+final class RefreshScheduler {
+
+    private static final HytaleLogger LOGGER = HytaleLogger.forEnclosingClass();
+
+    /** Default window over which a bulk refresh is spread. */
+    static final long DEFAULT_WINDOW_MS = 1000;
+
+    /** Maximum number of player refreshes running at the same time. */
+    static final int MAX_CONCURRENT_REFRESHES = 8;
+
+    /** How long {@link #shutdown()} waits for in-flight refreshes to finish. */
+    private static final long SHUTDOWN_TIMEOUT_MS = 1000;
+
+    private final Predicate<UUID> refresher;
+    private final ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore permits = new Semaphore(MAX_CONCURRENT_REFRESHES);
+    private final Set<UUID> queued = ConcurrentHashMap.newKeySet();
+
+    private volatile long windowMs = DEFAULT_WINDOW_MS;
+
+    /**
+     * @param refresher refreshes one player; returns {@code true} if a packet was sent
+     */
+    RefreshScheduler(@Nonnull Predicate<UUID> refresher) {
+        this.refresher = refresher;
+    }
+
+    /**
+     * Sets the window over which a bulk refresh is spread. {@code 0} starts
+     * every refresh immediately (still subject to the concurrency cap).
+     */
+    void setWindow(long windowMs) {
+        if (windowMs < 0) throw new IllegalArgumentException("windowMs must be >= 0");
+        this.windowMs = windowMs;
+    }
+
+    /**
+     * Queues a refresh for each player, staggered across the window in list
+     * order.
+     *
+     * @return the number of players newly queued
+     */
+    int schedule(@Nonnull List<UUID> players) {
+        if (workers.isShutdown()) return 0;
+        long window = this.windowMs;
+        int count = players.size();
+        int scheduled = 0;
+        for (int i = 0; i < count; i++) {
+            UUID playerUuid = players.get(i);
+            if (!queued.add(playerUuid)) continue;
+
+            long delayMs = window * i / count;
+            try {
+                if (delayMs == 0) {
+                    submit(playerUuid);
+                } else {
+                    HytaleServer.SCHEDULED_EXECUTOR.schedule(
+                            () -> submit(playerUuid), delayMs, TimeUnit.MILLISECONDS);
+                }
+                scheduled++;
+            } catch (Exception e) {
+                queued.remove(playerUuid);
+                LOGGER.atWarning().log("Failed to schedule tooltip refresh for "
+                        + playerUuid + ": " + e.getMessage());
+            }
+        }
+        return scheduled;
+    }
+
+    /** Drops a player's queued refresh, if any. */
+    void cancel(@Nonnull UUID playerUuid) {
+        queued.remove(playerUuid);
+    }
+
+    /**
+     * Drops every queued refresh and stops the worker threads. Refreshes
+     * already running are interrupted and given {@link #SHUTDOWN_TIMEOUT_MS}
+     * to finish. Later calls to {@link #schedule} queue nothing.
+     */
+    void shutdown() {
+        queued.clear();
+        workers.shutdownNow();
+        try {
+            if (!workers.awaitTermination(SHUTDOWN_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                LOGGER.atWarning().log("Tooltip refreshes still running after shutdown");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** Hands a queued refresh to a worker, unless the scheduler has shut down. */
+    private void submit(@Nonnull UUID playerUuid) {
+        try {
+            workers.execute(() -> run(playerUuid));
+        } catch (RejectedExecutionException e) {
+            queued.remove(playerUuid);
+        }
+    }
+
+    private void run(@Nonnull UUID playerUuid) {
+        // Cancelled (player left, adapter unregistered) since it was queued
+        if (!queued.remove(playerUuid)) return;
+
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        try {
+            refresher.test(playerUuid);
+        } catch (Exception e) {
+            LOGGER.atWarning().log("Tooltip refresh failed for " + playerUuid + ": " + e.getMessage());
+        } finally {
+            permits.release();
+        }
+    }
+}
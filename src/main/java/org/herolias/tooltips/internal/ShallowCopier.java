@@ -0,0 +1,101 @@
+package org.herolias.tooltips.internal;
+
+import com.hypixel.hytale.logger.HytaleLogger;
+
+import javax.annotation.Nonnull;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+/**
+ * Field-by-field shallow copies of protocol objects.
+ * <p>
+ * Protocol {@code clone()} methods deep-copy every nested array and object.
+ * Virtual items only replace a handful of fields, so a shallow copy lets them
+ * share everything else (particles, trails, appearance conditions, ...) with
+ * the base item's packet. Callers must copy any nested object before mutating
+ * it.
+ * <p>
+ * The public instance fields and no-arg constructor of each class are
+ * resolved once. If a class cannot be copied reflectively, the caller's
+ * fallback (typically the deep {@code clone()}) is used instead.
+ */
+final class ShallowCopier {
+
+    private static final HytaleLogger LOGGER = HytaleLogger.forEnclosingClass();
+
+    private static final ClassValue<Layout> LAYOUTS = new ClassValue<>() {
+        @Override
+        protected Layout computeValue(Class<?> type) {
+            return Layout.of(type);
+        }
+    };
+
+    private ShallowCopier() {}
+
+    /**
+     * Returns a new instance of {@code source}'s class with the same field
+     * values, or {@code fallback.apply(source)} if that is not possible.
+     */
+    @Nonnull
+    @SuppressWarnings("unchecked")
+    static <T> T copy(@Nonnull T source, @Nonnull UnaryOperator<T> fallback) {
+        Layout layout = LAYOUTS.get(source.getClass());
+        if (layout.constructor == null) return fallback.apply(source);
+        try {
+            Object copy = layout.constructor.newInstance();
+            for (Field field : layout.fields) {
+                field.set(copy, field.get(source));
+            }
+            return (T) copy;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return fallback.apply(source);
+        }
+    }
+
+    /** Resolved constructor and copyable fields of one class. */
+    private static final class Layout {
+        /** {@code null} if the class cannot be copied reflectively. */
+        final Constructor<?> constructor;
+        final Field[] fields;
+
+        private Layout(Constructor<?> constructor, Field[] fields) {
+            this.constructor = constructor;
+            this.fields = fields;
+        }
+
+        static Layout of(Class<?> type) {
+            try {
+                Constructor<?> constructor = type.getConstructor();
+                List<Field> fields = new ArrayList<>();
+                for (Field field : type.getFields()) {
+                    int mods = field.getModifiers();
+                    if (Modifier.isStatic(mods)) continue;
+                    if (Modifier.isFinal(mods)) return unsupported(type, "final field " + field.getName());
+                    fields.add(field);
+                }
+                // Non-public state would be silently dropped by a copy; fall back
+                for (Class<?> c = type; c != Object.class; c = c.getSuperclass()) {
+                    for (Field field : c.getDeclaredFields()) {
+                        int mods = field.getModifiers();
+                        if (!Modifier.isStatic(mods) && !Modifier.isPublic(mods)) {
+                            return unsupported(type, "non-public field " + field.getName());
+                        }
+                    }
+                }
+                return new Layout(constructor, fields.toArray(new Field[0]));
+            } catch (NoSuchMethodException | SecurityException e) {
+                return unsupported(type, e.toString());
+            }
+        }
+
+        private static Layout unsupported(Class<?> type, String reason) {
+            LOGGER.atWarning().log("Cannot shallow-copy " + type.getName() + " (" + reason
+                    + "); falling back to deep clones");
+            return new Layout(null, new Field[0]);
+        }
+    }
+}
@@ -119,11 +119,21 @@ public class TooltipPacketAdapter {
 
     /**
      * Per-player cache of the last <em>unprocessed</em> inventory packet.
-     * Deep-cloned before any tooltip processing modifies it.
+     * Snapshotted before any tooltip processing modifies it; see
+     * {@link #snapshotInventory}. Snapshots are never modified, so consecutive
+     * snapshots share their unchanged sections and items.
      * Used by {@link #refreshPlayer} to replay the packet with fresh data.
      */
     private final ConcurrentHashMap<UUID, UpdatePlayerInventory> lastRawInventory = new ConcurrentHashMap<>();
 
+    /**
+     * Per-player base for slot diffing: the raw snapshot of the last player
+     * inventory that was fully processed, with the registry generation and
+     * language it was processed under. Absent after a world transition or an
+     * invalidation, which forces the next packet to recompose every slot.
+     */
+    private final ConcurrentHashMap<UUID, InventoryDiffBase> inventoryDiffBases = new ConcurrentHashMap<>();
+
     /**
      * Per-player cached {@link PlayerRef}, updated on every outbound packet.
      * Used by {@link #refreshPlayer} and {@link #refreshAllPlayers}.
@@ -142,6 +152,10 @@ public class TooltipPacketAdapter {
     /** Delay (in seconds) before replaying inventory with tooltips after a world transition. */
     private static final int POST_TRANSITION_REFRESH_DELAY_SECS = 2;
 
+    /** Slot-tracking names of the {@link UpdatePlayerInventory} sections, in processing order. */
+    private static final String[] PLAYER_SECTION_NAMES = {
+            "hotbar", "utility", "tools", "armor", "storage", "backpack" };
+
     /**
      * Map of Player UUID -> Entity ID (from SetClientId).
      * Used to identify EntityUpdates that target the local player.
@@ -164,6 +178,9 @@ public class TooltipPacketAdapter {
     private final ConcurrentHashMap<UUID, com.hypixel.hytale.protocol.ExtraResources> lastServerExtraResources = new ConcurrentHashMap<>();
     private final ConcurrentHashMap<UUID, Integer> lastServerExtraResourcesWindowId = new ConcurrentHashMap<>();
 
+    /** Staggers the per-player refreshes of {@link #refreshAllPlayers}. */
+    private final RefreshScheduler refreshScheduler = new RefreshScheduler(this::refreshPlayer);
+
     public TooltipPacketAdapter(
             @Nonnull VirtualItemRegistry virtualItemRegistry,
             @Nonnull TooltipRegistry tooltipRegistry,
@@ -201,13 +218,16 @@ public class TooltipPacketAdapter {
             }
             inboundFilter = null;
         }
+        refreshScheduler.shutdown();
     }
 
     public void onPlayerLeave(@Nonnull UUID playerUuid) {
         worldTransitioning.remove(playerUuid);
         lastSentTranslations.remove(playerUuid);
         lastRawInventory.remove(playerUuid);
+        inventoryDiffBases.remove(playerUuid);
         knownPlayerRefs.remove(playerUuid);
+        refreshScheduler.cancel(playerUuid);
         playerEntityIds.remove(playerUuid);
         playerActiveHotbarSlots.remove(playerUuid);
         lastServerExtraResources.remove(playerUuid);
@@ -387,16 +407,18 @@ public class TooltipPacketAdapter {
                 // Intercept entity updates to ensure held items use virtual IDs
                 processEntityUpdates(playerRef, updates);
             } else if (packet instanceof UpdatePlayerInventory invPacket) {
-                // Cache a deep clone of the raw packet BEFORE processing modifies it
-                lastRawInventory.put(playerUuid, deepCloneInventory(invPacket));
+                // Snapshot the raw packet BEFORE processing modifies it
+                UpdatePlayerInventory rawSnapshot = snapshotInventory(invPacket, lastRawInventory.get(playerUuid));
+                lastRawInventory.put(playerUuid, rawSnapshot);
 
                 if (worldTransitioning.remove(playerUuid)) {
                     // Player is mid-transition — let the vanilla inventory packet
                     // through unmodified so the client can send ClientReady ASAP.
                     // Tooltips will be applied by a deferred refresh.
+                    inventoryDiffBases.remove(playerUuid);
                     schedulePostTransitionRefresh(playerUuid);
                 } else {
-                    processPlayerInventory(playerRef, invPacket);
+                    processPlayerInventory(playerRef, invPacket, rawSnapshot);
                 }
             } else if (packet instanceof OpenWindow openWindow) {
                 processWindowInventory(playerRef, openWindow.inventory);
@@ -523,10 +545,30 @@ public class TooltipPacketAdapter {
     //  Player inventory processing
     // ───────────────────────────────────────────────────────────────────────
 
+    /**
+     * Processes a player inventory packet, diffing it against the last fully
+     * processed one. Slots whose item ID, metadata and quantity are unchanged
+     * reuse their tracked virtual ID without being recomposed, as long as no
+     * invalidation happened in between and the language is the same.
+     *
+     * @param rawSnapshot the pre-processing {@linkplain #snapshotInventory
+     *                    snapshot} of {@code packet}, kept as the diff base for
+     *                    the next packet. It shares unchanged sections and
+     *                    items with earlier snapshots and must not be mutated
+     */
     private void processPlayerInventory(@Nonnull PlayerRef playerRef,
-                                        @Nonnull UpdatePlayerInventory packet) {
+                                        @Nonnull UpdatePlayerInventory packet,
+                                        @Nonnull UpdatePlayerInventory rawSnapshot) {
         UUID playerUuid = playerRef.getUuid();
         String language = getResolvedLanguage(playerRef);
+        long generation = tooltipRegistry.getGeneration();
+
+        InventoryDiffBase diffBase = inventoryDiffBases.remove(playerUuid);
+        InventorySection[] previousSections = diffBase != null
+                && diffBase.generation == generation
+                && Objects.equals(diffBase.language, language)
+                ? playerSections(diffBase.raw)
+                : null;
 
         Map<String, ItemBase> newVirtualItems = new LinkedHashMap<>();
         Map<String, String> translations = new LinkedHashMap<>();
@@ -535,12 +577,9 @@ public class TooltipPacketAdapter {
             // All sections use virtual item IDs uniformly.
             // The inbound filter translates virtual IDs back to real IDs
             // for SyncInteractionChains and MouseInteraction packets.
-            processSection(playerUuid, "hotbar", packet.hotbar, language, newVirtualItems, translations);
-            processSection(playerUuid, "utility", packet.utility, language, newVirtualItems, translations);
-            processSection(playerUuid, "tools", packet.tools, language, newVirtualItems, translations);
-            processSection(playerUuid, "armor", packet.armor, language, newVirtualItems, translations);
-            processSection(playerUuid, "storage", packet.storage, language, newVirtualItems, translations);
-            processSection(playerUuid, "backpack", packet.backpack, language, newVirtualItems, translations);
+            processSections(playerUuid, PLAYER_SECTION_NAMES, playerSections(packet), previousSections,
+                    language, newVirtualItems, translations);
+            inventoryDiffBases.put(playerUuid, new InventoryDiffBase(rawSnapshot, generation, language));
         } catch (Exception e) {
             LOGGER.atSevere().log("Error in processPlayerInventory for " + playerUuid + ": " + e.getMessage());
         } finally {
@@ -548,6 +587,27 @@ public class TooltipPacketAdapter {
         }
     }
 
+    /** The sections of a player inventory, in {@link #PLAYER_SECTION_NAMES} order. */
+    @Nonnull
+    private static InventorySection[] playerSections(@Nonnull UpdatePlayerInventory inventory) {
+        return new InventorySection[] {
+                inventory.hotbar, inventory.utility, inventory.tools,
+                inventory.armor, inventory.storage, inventory.backpack };
+    }
+
+    /** A processed raw inventory and the conditions it was processed under. */
+    private static final class InventoryDiffBase {
+        final UpdatePlayerInventory raw;
+        final long generation;
+        @Nullable final String language;
+
+        InventoryDiffBase(@Nonnull UpdatePlayerInventory raw, long generation, @Nullable String language) {
+            this.raw = raw;
+            this.generation = generation;
+            this.language = language;
+        }
+    }
+
     // ───────────────────────────────────────────────────────────────────────
     //  Window (chest/container) inventory processing
     // ───────────────────────────────────────────────────────────────────────
@@ -562,7 +622,8 @@ public class TooltipPacketAdapter {
         Map<String, ItemBase> newVirtualItems = new LinkedHashMap<>();
         Map<String, String> translations = new LinkedHashMap<>();
 
-        processSection(playerUuid, null, section, language, newVirtualItems, translations);
+        processSections(playerUuid, new String[] { null }, new InventorySection[] { section }, null,
+                language, newVirtualItems, translations);
         sendAuxiliaryPackets(playerRef, newVirtualItems, translations);
     }
 
@@ -1190,85 +1251,162 @@ public class TooltipPacketAdapter {
     // ───────────────────────────────────────────────────────────────────────
 
     /**
-     * Processes a single display-only {@link InventorySection}: for each item with
+     * Processes display-only {@link InventorySection}s: for each item with
      * tooltip data, clones its {@link ItemWithAllMetadata}, sets the virtual ID on
      * the clone, and replaces the entry in the section's items map.
+     * <p>
+     * Works in three phases: collect the items of all sections, compose them
+     * in one {@link TooltipRegistry#composeAll batch} (so identical stacks are
+     * composed once), then apply the results. Virtual item definitions and
+     * translations are likewise resolved once per distinct virtual ID.
+     *
+     * @param sectionNames     slot-tracking names, parallel to {@code sections};
+     *                         a {@code null} name disables slot tracking
+     * @param previousSections the same sections of the last processed raw packet,
+     *                         or {@code null} to recompose every slot. A tracked
+     *                         slot whose item is unchanged keeps its virtual ID
+     *                         if the player has already received it.
      */
-    private void processSection(
+    private void processSections(
             @Nonnull UUID playerUuid,
-            @Nullable String sectionName,
-            @Nullable InventorySection section,
+            @Nonnull String[] sectionNames,
+            @Nonnull InventorySection[] sections,
+            @Nullable InventorySection[] previousSections,
             @Nullable String language,
             @Nonnull Map<String, ItemBase> newVirtualItems,
             @Nonnull Map<String, String> translations) {
 
-        if (section == null || section.items == null || section.items.isEmpty()) return;
+        Set<String> sentVirtualIds = previousSections != null
+                ? virtualItemRegistry.getSentVirtualIds(playerUuid) : null;
 
-        for (Map.Entry<Integer, ItemWithAllMetadata> entry : section.items.entrySet()) {
-            int slot = entry.getKey();
-            ItemWithAllMetadata itemPacket = entry.getValue();
+        // ── Collect ──
+        List<PendingSlot> pending = new ArrayList<>();
+        for (int s = 0; s < sections.length; s++) {
+            String sectionName = sectionNames[s];
+            InventorySection section = sections[s];
+            if (section == null || section.items == null || section.items.isEmpty()) continue;
+            InventorySection previous = sentVirtualIds != null && sectionName != null
+                    ? previousSections[s] : null;
 
-            if (itemPacket == null || itemPacket.itemId == null || itemPacket.itemId.isEmpty()) {
-                if (sectionName != null) {
-                    virtualItemRegistry.trackSlotVirtualId(playerUuid, sectionName + ":" + slot, null);
+            for (Map.Entry<Integer, ItemWithAllMetadata> entry : section.items.entrySet()) {
+                int slot = entry.getKey();
+                ItemWithAllMetadata itemPacket = entry.getValue();
+
+                if (itemPacket == null || itemPacket.itemId == null || itemPacket.itemId.isEmpty()) {
+                    trackSlot(playerUuid, sectionName, slot, null);
+                    continue;
                 }
-                continue;
-            }
 
-            if (VirtualItemRegistry.isVirtualId(itemPacket.itemId)) continue;
+                if (VirtualItemRegistry.isVirtualId(itemPacket.itemId)) continue;
+
+                // ── Unchanged slot: reuse the virtual ID it already has ──
+                if (previous != null && previous.items != null
+                        && isSameStack(previous.items.get(slot), itemPacket)) {
+                    String virtualId = virtualItemRegistry.getSlotVirtualId(playerUuid, sectionName + ":" + slot);
+                    if (virtualId != null && sentVirtualIds.contains(virtualId)) {
+                        ItemWithAllMetadata clonedItem = itemPacket.clone();
+                        clonedItem.itemId = virtualId;
+                        entry.setValue(clonedItem);
+                        continue;
+                    }
+                }
 
-            // Query all tooltip providers via the registry (with locale for per-player translations)
-            TooltipRegistry.ComposedTooltip composed = tooltipRegistry.compose(
-                    itemPacket.itemId, itemPacket.metadata, language);
+                pending.add(new PendingSlot(sectionName, section, slot, itemPacket));
+            }
+        }
+        if (pending.isEmpty()) return;
+
+        // ── Compose (with locale for per-player translations) ──
+        String[] itemIds = new String[pending.size()];
+        String[] metadata = new String[pending.size()];
+        for (int i = 0; i < itemIds.length; i++) {
+            itemIds[i] = pending.get(i).item.itemId;
+            metadata[i] = pending.get(i).item.metadata;
+        }
+        TooltipRegistry.ComposedTooltip[] composedResults = tooltipRegistry.composeAll(itemIds, metadata, language);
+
+        // ── Apply ──
+        for (int i = 0; i < itemIds.length; i++) {
+            PendingSlot p = pending.get(i);
+            TooltipRegistry.ComposedTooltip composed = composedResults[i];
 
             if (composed == null) {
-                if (sectionName != null) {
-                    virtualItemRegistry.trackSlotVirtualId(playerUuid, sectionName + ":" + slot, null);
-                }
+                trackSlot(playerUuid, p.sectionName, p.slot, null);
                 continue;
             }
 
-            String baseItemId = itemPacket.itemId;
+            String baseItemId = p.item.itemId;
             String virtualId = virtualItemRegistry.generateVirtualId(baseItemId, composed.getCombinedHash());
 
-            // Get or create the virtual ItemBase definition
-            ItemBase virtualBase = virtualItemRegistry.getOrCreateVirtualItemBase(
-                    baseItemId, virtualId, composed.getNameOverride(), composed.getVisualOverrides(),
-                    composed.getNameTranslationKey(), composed.getDescriptionTranslationKey());
+            ItemBase virtualBase = newVirtualItems.get(virtualId);
             if (virtualBase == null) {
-                if (sectionName != null) {
-                    virtualItemRegistry.trackSlotVirtualId(playerUuid, sectionName + ":" + slot, null);
+                // Get or create the virtual ItemBase definition
+                virtualBase = virtualItemRegistry.getOrCreateVirtualItemBase(
+                        baseItemId, virtualId, composed.getNameOverride(), composed.getVisualOverrides(),
+                        composed.getNameTranslationKey(), composed.getDescriptionTranslationKey());
+                if (virtualBase == null) {
+                    trackSlot(playerUuid, p.sectionName, p.slot, null);
+                    continue;
                 }
-                continue;
-            }
 
-            newVirtualItems.put(virtualId, virtualBase);
-
-            // Build the description for this virtual item
-            String descKey = VirtualItemRegistry.getVirtualDescriptionKey(virtualId);
-            if (!translations.containsKey(descKey)) {
-                String originalDesc = globalTooltipManager != null ?
-                        globalTooltipManager.getGlobalDescription(baseItemId, language) :
-                        virtualItemRegistry.getOriginalDescription(baseItemId, language);
-                String enrichedDesc = composed.buildDescription(originalDesc);
-                translations.put(descKey, enrichedDesc);
-                virtualItemRegistry.cacheDescription(virtualId, language, enrichedDesc);
-            }
+                newVirtualItems.put(virtualId, virtualBase);
+
+                // Build the description for this virtual item
+                String descKey = VirtualItemRegistry.getVirtualDescriptionKey(virtualId);
+                if (!translations.containsKey(descKey)) {
+                    String originalDesc = globalTooltipManager != null ?
+                            globalTooltipManager.getGlobalDescription(baseItemId, language) :
+                            virtualItemRegistry.getOriginalDescription(baseItemId, language);
+                    String enrichedDesc = composed.buildDescription(originalDesc);
+                    translations.put(descKey, enrichedDesc);
+                    virtualItemRegistry.cacheDescription(virtualId, language, enrichedDesc);
+                }
 
-            // Handle name override translation
-            if (composed.getNameOverride() != null) {
-                String nameKey = VirtualItemRegistry.getVirtualNameKey(virtualId);
-                translations.put(nameKey, composed.getNameOverride());
+                // Handle name override translation
+                if (composed.getNameOverride() != null) {
+                    String nameKey = VirtualItemRegistry.getVirtualNameKey(virtualId);
+                    translations.put(nameKey, composed.getNameOverride());
+                }
             }
 
             // Clone, swap ID, replace in section
-            ItemWithAllMetadata clonedItem = itemPacket.clone();
+            ItemWithAllMetadata clonedItem = p.item.clone();
             clonedItem.itemId = virtualId;
-            section.items.put(slot, clonedItem);
+            p.section.items.put(p.slot, clonedItem);
 
-            if (sectionName != null) {
-                virtualItemRegistry.trackSlotVirtualId(playerUuid, sectionName + ":" + slot, virtualId);
-            }
+            trackSlot(playerUuid, p.sectionName, p.slot, virtualId);
+        }
+    }
+
+    /** Whether two raw slot items have the same item ID, metadata and quantity. */
+    private static boolean isSameStack(@Nullable ItemWithAllMetadata previous,
+                                       @Nonnull ItemWithAllMetadata current) {
+        return previous != null
+                && current.itemId.equals(previous.itemId)
+                && current.quantity == previous.quantity
+                && Objects.equals(current.metadata, previous.metadata);
+    }
+
+    private void trackSlot(@Nonnull UUID playerUuid, @Nullable String sectionName, int slot,
+                           @Nullable String virtualId) {
+        if (sectionName != null) {
+            virtualItemRegistry.trackSlotVirtualId(playerUuid, sectionName + ":" + slot, virtualId);
+        }
+    }
+
+    /** A slot collected for batch composition. */
+    private static final class PendingSlot {
+        @Nullable final String sectionName;
+        final InventorySection section;
+        final int slot;
+        final ItemWithAllMetadata item;
+
+        PendingSlot(@Nullable String sectionName, @Nonnull InventorySection section, int slot,
+                    @Nonnull ItemWithAllMetadata item) {
+            this.sectionName = sectionName;
+            this.section = section;
+            this.slot = slot;
+            this.item = item;
         }
     }
 
@@ -1278,6 +1416,17 @@ public class TooltipPacketAdapter {
     //  Auxiliary packet sending
     // ═══════════════════════════════════════════════════════════════════════
 
+    /**
+     * Sends the virtual item definitions and translations produced while
+     * processing one outbound packet.
+     * <p>
+     * Both go out before this method returns, and therefore before the packet
+     * being processed, which references them: virtual IDs are shared across
+     * locales, so a translation arriving late would briefly show raw keys or
+     * another locale's text. Definitions the player has not seen yet are sent
+     * first, then the translations that differ from what the player last
+     * received, as one {@link UpdateTranslations}.
+     */
     public void sendAuxiliaryPackets(@Nonnull PlayerRef playerRef,
                                      @Nonnull Map<String, ItemBase> newVirtualItems,
                                      @Nonnull Map<String, String> translations) {
@@ -1394,15 +1543,47 @@ public class TooltipPacketAdapter {
      */
     public void invalidatePlayer(@Nonnull UUID playerUuid) {
         lastSentTranslations.remove(playerUuid);
+        inventoryDiffBases.remove(playerUuid);
         // Note: we intentionally keep lastRawInventory and knownPlayerRefs —
         // they are needed for a subsequent refreshPlayer call.
     }
 
+    /**
+     * Returns the base item IDs in the player's last known inventory, or an
+     * empty set if no inventory has been seen for them.
+     */
+    @Nonnull
+    public Set<String> getInventoryItemIds(@Nonnull UUID playerUuid) {
+        UpdatePlayerInventory rawInv = lastRawInventory.get(playerUuid);
+        if (rawInv == null) return Collections.emptySet();
+
+        Set<String> itemIds = new HashSet<>();
+        collectBaseItemIds(rawInv.hotbar, itemIds);
+        collectBaseItemIds(rawInv.utility, itemIds);
+        collectBaseItemIds(rawInv.tools, itemIds);
+        collectBaseItemIds(rawInv.armor, itemIds);
+        collectBaseItemIds(rawInv.storage, itemIds);
+        collectBaseItemIds(rawInv.backpack, itemIds);
+        return itemIds;
+    }
+
+    private static void collectBaseItemIds(@Nullable InventorySection section, @Nonnull Set<String> itemIds) {
+        if (section == null || section.items == null) return;
+        for (ItemWithAllMetadata item : section.items.values()) {
+            if (item == null || item.itemId == null) continue;
+            String baseItemId = VirtualItemRegistry.isVirtualId(item.itemId)
+                    ? VirtualItemRegistry.getBaseItemId(item.itemId)
+                    : item.itemId;
+            if (baseItemId != null) itemIds.add(baseItemId);
+        }
+    }
+
     /**
      * Clears all per-player caches for <b>every</b> tracked player.
      */
     public void invalidateAllPlayers() {
         lastSentTranslations.clear();
+        inventoryDiffBases.clear();
     }
 
     /**
@@ -1419,8 +1600,9 @@ public class TooltipPacketAdapter {
         UpdatePlayerInventory rawPacket = lastRawInventory.get(playerUuid);
         if (rawPacket == null) return false;
 
-        // Clone again so processing doesn't destroy the cached copy
-        UpdatePlayerInventory clone = deepCloneInventory(rawPacket);
+        // Fresh section maps so processing doesn't modify the cached snapshot;
+        // items are shared, since processing replaces them instead of mutating them
+        UpdatePlayerInventory clone = copyForReplay(rawPacket);
 
         try {
             // writeNoCache triggers the outbound filter when called outside
@@ -1434,48 +1616,163 @@ public class TooltipPacketAdapter {
     }
 
     /**
-     * Refreshes every known online player.
+     * Queues a refresh for every known online player, spread over the
+     * refresh window (see {@link #setRefreshWindow(long)}).
+     * <p>
+     * If {@code nearPlayer} is given, that player is refreshed first, followed
+     * by the players in the same world, then everyone else.
      *
-     * @return the number of players successfully refreshed
+     * @param nearPlayer the player who triggered the change, or {@code null}
+     * @return the number of players queued
      */
-    public int refreshAllPlayers() {
-        int count = 0;
-        for (UUID uuid : knownPlayerRefs.keySet()) {
-            if (refreshPlayer(uuid)) count++;
+    public int refreshAllPlayers(@Nullable UUID nearPlayer) {
+        return refreshScheduler.schedule(refreshOrder(nearPlayer));
+    }
+
+    /**
+     * Sets the window over which {@link #refreshAllPlayers} spreads its
+     * refreshes. {@code 0} refreshes everyone at once.
+     */
+    public void setRefreshWindow(long windowMs) {
+        refreshScheduler.setWindow(windowMs);
+    }
+
+    /** Known valid players, with {@code nearPlayer} and their world-mates first. */
+    @Nonnull
+    private List<UUID> refreshOrder(@Nullable UUID nearPlayer) {
+        Store<EntityStore> nearWorld = nearPlayer != null ? worldOf(knownPlayerRefs.get(nearPlayer)) : null;
+
+        List<UUID> near = new ArrayList<>();
+        List<UUID> rest = new ArrayList<>();
+        for (Map.Entry<UUID, PlayerRef> entry : knownPlayerRefs.entrySet()) {
+            UUID uuid = entry.getKey();
+            if (uuid.equals(nearPlayer)) continue;
+            if (nearWorld != null && worldOf(entry.getValue()) == nearWorld) {
+                near.add(uuid);
+            } else {
+                rest.add(uuid);
+            }
         }
-        return count;
+
+        List<UUID> order = new ArrayList<>(near.size() + rest.size() + 1);
+        if (nearPlayer != null && knownPlayerRefs.containsKey(nearPlayer)) order.add(nearPlayer);
+        order.addAll(near);
+        order.addAll(rest);
+        return order;
+    }
+
+    /** The entity store (i.e. world) the player is currently in, or {@code null}. */
+    @Nullable
+    private static Store<EntityStore> worldOf(@Nullable PlayerRef playerRef) {
+        if (playerRef == null || !playerRef.isValid()) return null;
+        Ref<EntityStore> ref = playerRef.getReference();
+        return ref != null ? ref.getStore() : null;
     }
 
 
 
     // ─────────────────────────────────────────────────────────────────────────
-    //  Deep clone helpers
+    //  Inventory snapshots
     // ─────────────────────────────────────────────────────────────────────────
 
+    /**
+     * Builds an immutable snapshot of a raw inventory packet, sharing every
+     * section and item that is unchanged since {@code previous}. Only changed
+     * items are cloned, so a packet that differs in one slot costs one clone
+     * and one section map.
+     * <p>
+     * The snapshot is not a deep copy of {@code current}: its sections and
+     * items may be the very objects held by {@code previous} (and by older
+     * snapshots). Neither may ever be mutated; replays go through
+     * {@link #copyForReplay}.
+     *
+     * @param previous the player's previous snapshot, or {@code null}
+     */
     @Nonnull
-    private static UpdatePlayerInventory deepCloneInventory(@Nonnull UpdatePlayerInventory original) {
-        UpdatePlayerInventory clone = new UpdatePlayerInventory();
-        clone.hotbar = cloneSection(original.hotbar);
-        clone.utility = cloneSection(original.utility);
-        clone.tools = cloneSection(original.tools);
-        clone.armor = cloneSection(original.armor);
-        clone.storage = cloneSection(original.storage);
-        clone.backpack = cloneSection(original.backpack);
-        return clone;
+    private static UpdatePlayerInventory snapshotInventory(@Nonnull UpdatePlayerInventory current,
+                                                           @Nullable UpdatePlayerInventory previous) {
+        UpdatePlayerInventory snapshot = new UpdatePlayerInventory();
+        snapshot.hotbar = snapshotSection(current.hotbar, previous != null ? previous.hotbar : null);
+        snapshot.utility = snapshotSection(current.utility, previous != null ? previous.utility : null);
+        snapshot.tools = snapshotSection(current.tools, previous != null ? previous.tools : null);
+        snapshot.armor = snapshotSection(current.armor, previous != null ? previous.armor : null);
+        snapshot.storage = snapshotSection(current.storage, previous != null ? previous.storage : null);
+        snapshot.backpack = snapshotSection(current.backpack, previous != null ? previous.backpack : null);
+        return snapshot;
     }
 
     @Nullable
-    private static InventorySection cloneSection(@Nullable InventorySection section) {
+    private static InventorySection snapshotSection(@Nullable InventorySection section,
+                                                    @Nullable InventorySection previous) {
         if (section == null) return null;
-        InventorySection clone = new InventorySection();
-        clone.capacity = section.capacity;
+        if (previous != null && isSameSection(section, previous)) return previous;
+
+        InventorySection snapshot = new InventorySection();
+        snapshot.capacity = section.capacity;
         if (section.items != null) {
-            clone.items = new HashMap<>();
+            Map<Integer, ItemWithAllMetadata> previousItems = previous != null ? previous.items : null;
+            snapshot.items = new HashMap<>();
             for (Map.Entry<Integer, ItemWithAllMetadata> entry : section.items.entrySet()) {
-                clone.items.put(entry.getKey(),
-                        entry.getValue() != null ? entry.getValue().clone() : null);
+                ItemWithAllMetadata item = entry.getValue();
+                ItemWithAllMetadata previousItem = previousItems != null ? previousItems.get(entry.getKey()) : null;
+                snapshot.items.put(entry.getKey(),
+                        item == null ? null : isSameItem(item, previousItem) ? previousItem : item.clone());
+            }
+        }
+        return snapshot;
+    }
+
+    /** Whether a section has the same capacity and slot contents as a snapshot section. */
+    private static boolean isSameSection(@Nonnull InventorySection section, @Nonnull InventorySection previous) {
+        if (section.capacity != previous.capacity) return false;
+        if (section.items == null || previous.items == null) return section.items == previous.items;
+        if (section.items.size() != previous.items.size()) return false;
+        for (Map.Entry<Integer, ItemWithAllMetadata> entry : section.items.entrySet()) {
+            ItemWithAllMetadata item = entry.getValue();
+            ItemWithAllMetadata previousItem = previous.items.get(entry.getKey());
+            if (item == null) {
+                if (previousItem != null || !previous.items.containsKey(entry.getKey())) return false;
+            } else if (!isSameItem(item, previousItem)) {
+                return false;
             }
         }
-        return clone;
+        return true;
+    }
+
+    /** Field-by-field equality of two raw slot items. */
+    private static boolean isSameItem(@Nonnull ItemWithAllMetadata item, @Nullable ItemWithAllMetadata previous) {
+        if (previous == null) return false;
+        if (item == previous) return true;
+        return Objects.equals(item.itemId, previous.itemId)
+                && item.quantity == previous.quantity
+                && Double.compare(item.durability, previous.durability) == 0
+                && Double.compare(item.maxDurability, previous.maxDurability) == 0
+                && item.overrideDroppedItemAnimation == previous.overrideDroppedItemAnimation
+                && Objects.equals(item.metadata, previous.metadata);
+    }
+
+    /**
+     * Copies a snapshot for replaying through the outbound filter: new
+     * sections and section maps, shared (never mutated) items.
+     */
+    @Nonnull
+    private static UpdatePlayerInventory copyForReplay(@Nonnull UpdatePlayerInventory snapshot) {
+        UpdatePlayerInventory copy = new UpdatePlayerInventory();
+        copy.hotbar = copySection(snapshot.hotbar);
+        copy.utility = copySection(snapshot.utility);
+        copy.tools = copySection(snapshot.tools);
+        copy.armor = copySection(snapshot.armor);
+        copy.storage = copySection(snapshot.storage);
+        copy.backpack = copySection(snapshot.backpack);
+        return copy;
+    }
+
+    @Nullable
+    private static InventorySection copySection(@Nullable InventorySection section) {
+        if (section == null) return null;
+        InventorySection copy = new InventorySection();
+        copy.capacity = section.capacity;
+        if (section.items != null) copy.items = new HashMap<>(section.items);
+        return copy;
     }
 }
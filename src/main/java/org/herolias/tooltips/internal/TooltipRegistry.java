@@ -1,23 +1,37 @@
 package org.herolias.tooltips.internal;
 
 import com.hypixel.hytale.logger.HytaleLogger;
+import com.hypixel.hytale.protocol.ItemBase;
+import com.hypixel.hytale.server.core.asset.type.item.config.Item;
+import org.herolias.tooltips.api.CacheStats;
+import org.herolias.tooltips.api.ItemMetadataView;
 import org.herolias.tooltips.api.ItemVisualOverrides;
+import org.herolias.tooltips.api.TooltipApplicability;
+import org.herolias.tooltips.api.TooltipCachePolicy;
 import org.herolias.tooltips.api.TooltipData;
 import org.herolias.tooltips.api.TooltipProvider;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import java.security.MessageDigest;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Central registry that manages all {@link TooltipProvider}s and composes
  * their contributions into a final tooltip for each item.
  * <p>
  * <h2>Composition rules</h2>
- * Providers are queried in {@linkplain TooltipProvider#getPriority() priority}
- * order (ascending). The results are composed as follows:
+ * Providers are queried in descending {@linkplain TooltipProvider#getPriority()
+ * priority} order, skipping providers whose
+ * {@linkplain TooltipProvider#getApplicability() applicability} excludes the
+ * item, and {@linkplain TooltipProvider#isAdditiveOnly() additive-only}
+ * providers once a description override is settled. The results are then
+ * composed in ascending order as follows:
  * <ul>
  *   <li><b>Description override</b>: if any provider returns a non-null
  *       {@link TooltipData#getDescriptionOverride()}, the highest-priority
@@ -28,9 +42,19 @@ import java.util.concurrent.ConcurrentHashMap;
  *       priority order, separated by newlines.</li>
  * </ul>
  *
+ * <h2>Invalidation</h2>
+ * Cached item states are indexed by base item ID, by locale and by the
+ * providers that were consulted for them, so registering or unregistering a
+ * provider (or an explicit {@link #invalidateItem}) only drops the affected
+ * entries. Composed tooltips are addressed by the hash of their provider
+ * outputs and stay valid across invalidations.
+ *
  * <h2>Thread safety</h2>
  * The provider list uses copy-on-write semantics via a volatile snapshot.
- * {@link #compose} is called from packet-processing threads and is lock-free.
+ * {@link #compose} is called from packet-processing threads and is lock-free
+ * on cache hits. On a miss, concurrent callers for the same item state wait
+ * (for at most {@link #IN_FLIGHT_WAIT_MS}) for the one thread already
+ * querying the providers instead of repeating its work.
  */
 public class TooltipRegistry {
 
@@ -44,43 +68,129 @@ public class TooltipRegistry {
     private final Object providerLock = new Object();
 
     /** Sorted snapshot for lock-free reads during packet processing. */
-    private volatile List<TooltipProvider> providerSnapshot = Collections.emptyList();
+    private volatile ProviderSnapshot providerSnapshot = ProviderSnapshot.EMPTY;
+
+    /**
+     * Cache for composed descriptions: combinedHash → locale ({@code ""} for
+     * none) → composed description. Grouping the locale variants under their
+     * hash makes {@link #getComposed} a direct lookup.
+     * <p>
+     * Bounded to {@link #COMPOSED_CACHE_MAX} hashes. An evicted composition is
+     * rebuilt (with the same combined hash) the next time an item state needs it.
+     */
+    private final BoundedCache<String, ConcurrentHashMap<String, ComposedTooltip>> composedCache =
+            new BoundedCache<>(COMPOSED_CACHE_MAX);
 
-    /** Cache for composed descriptions: combinedHash → composed description. */
-    private final ConcurrentHashMap<String, ComposedTooltip> composedCache = new ConcurrentHashMap<>();
+    /**
+     * Cache epoch. Item states cached under an older epoch are stale and are
+     * revalidated on their next access; see {@link #invalidateAll()}.
+     */
+    private final AtomicLong epoch = new AtomicLong();
+
+    /**
+     * Bumped by every registration change and invalidation, so callers that
+     * remember composition results outside this registry (e.g. per-slot
+     * virtual IDs) can tell whether they may still be reused.
+     */
+    private final AtomicLong generation = new AtomicLong();
 
     /**
-     * Fast-path cache: "itemId\0metadata" → ComposedTooltip (or {@link #EMPTY_SENTINEL}).
+     * Fast-path cache: {@link ItemStateKey} → {@link CachedState} wrapping a
+     * ComposedTooltip (or {@link #EMPTY_SENTINEL}) and the epoch it was validated in.
      * <p>
      * This cache sits <em>above</em> the provider calls. If the exact same
      * (itemId, metadata) pair has been seen before, we return the cached result
      * without invoking any provider. This eliminates metadata parsing on every
      * outbound packet for items that haven't changed.
      * <p>
-     * Bounded to {@link #STATE_CACHE_MAX} entries to prevent unbounded growth.
+     * Bounded to {@link #STATE_CACHE_MAX} entries. Once full, cold item states
+     * are evicted (segmented LRU) so that new states can still be cached.
+     */
+    private final BoundedCache<ItemStateKey, CachedState> itemStateCache =
+            new BoundedCache<>(STATE_CACHE_MAX, this::unindexItemState);
+
+    /** Reverse index: base item ID → item-state keys cached for that item. */
+    private final ConcurrentHashMap<String, Set<ItemStateKey>> stateKeysByItem = new ConcurrentHashMap<>();
+
+    /** Reverse index: locale ({@code ""} for none) → item-state keys cached for that locale. */
+    private final ConcurrentHashMap<String, Set<ItemStateKey>> stateKeysByLocale = new ConcurrentHashMap<>();
+
+    /**
+     * Reverse index: provider ID → base item IDs with cached states that the
+     * provider was consulted for. Only pruned on invalidation; entries for
+     * evicted states are harmless and merely widen a later invalidation.
+     */
+    private final ConcurrentHashMap<String, Set<String>> itemsByProvider = new ConcurrentHashMap<>();
+
+    /**
+     * Per-provider results, for providers whose {@link TooltipCachePolicy}
+     * allows it. Consulted when an item state has to be recomposed.
+     */
+    private final ProviderResultCache resultCache = new ProviderResultCache();
+
+    /**
+     * Item states currently being composed. Concurrent misses on the same key
+     * wait for the in-flight composition instead of querying the providers again.
+     */
+    private final ConcurrentHashMap<ItemStateKey, CompletableFuture<CachedState>> inFlight =
+            new ConcurrentHashMap<>();
+
+    /**
+     * Longest a caller waits for another thread's in-flight composition before
+     * composing the item state itself.
      */
-    private final ConcurrentHashMap<String, ComposedTooltip> itemStateCache = new ConcurrentHashMap<>();
+    private static final long IN_FLIGHT_WAIT_MS = 250;
 
     /** Sentinel for items with no tooltip data (caches negative results). */
     private static final ComposedTooltip EMPTY_SENTINEL = new ComposedTooltip(
-            Collections.emptyList(), null, null, null, null, null, "");
+            Collections.emptyList(), null, null, null, null, null, "", Collections.emptyList());
 
-    /** Maximum entries in the item-state cache before new entries are rejected. */
+    /** Maximum entries in the item-state cache before cold entries are evicted. */
     private static final int STATE_CACHE_MAX = 4096;
 
+    /** Maximum combined hashes in the composed cache before cold ones are evicted. */
+    private static final int COMPOSED_CACHE_MAX = 8192;
+
+    /**
+     * Prefix of the metadata slot in projected item-state keys. Cannot start a
+     * JSON document, so projected keys never collide with raw-metadata keys.
+     */
+    private static final char PROJECTION_MARKER = '\u0002';
+
+    /** Number of hash seeds tried before giving up on a colliding combined hash. */
+    private static final int MAX_HASH_PROBES = 4;
+
+    /**
+     * Per-thread open-addressing table used by {@link #composeAll} to find
+     * duplicate slots: each entry is the index of the first slot with a given
+     * (itemId, metadata) pair, or {@code -1} if free. Reused across packets,
+     * so deduplication allocates nothing once the table is large enough.
+     */
+    private static final ThreadLocal<int[]> DEDUPE_TABLE = ThreadLocal.withInitial(() -> new int[64]);
+
     // ─────────────────────────────────────────────────────────────────────
     //  Provider management
     // ─────────────────────────────────────────────────────────────────────
 
     public void registerProvider(@Nonnull TooltipProvider provider) {
+        TooltipProvider replaced;
         synchronized (providerLock) {
-            providers.put(provider.getProviderId(), provider);
+            replaced = providers.put(provider.getProviderId(), provider);
             rebuildSnapshot();
         }
+        // Compositions built from the replaced provider's output are stale
+        if (replaced != null) dropCompositionsOf(provider.getProviderId());
+        // Drop states the replaced provider (if any) was consulted for, then
+        // every cached item the new provider applies to.
+        int invalidated = invalidateProvider(provider.getProviderId());
+        ProviderSnapshot snapshot = providerSnapshot;
+        for (String itemId : stateKeysByItem.keySet()) {
+            if (snapshot.dispatchFor(itemId).contains(provider)) {
+                invalidated += dropItemStates(itemId);
+            }
+        }
         LOGGER.atInfo().log("Registered TooltipProvider: " + provider.getProviderId()
-                + " (priority=" + provider.getPriority() + ")");
-        composedCache.clear();
-        itemStateCache.clear();
+                + " (priority=" + provider.getPriority() + ", invalidated " + invalidated + " cached states)");
     }
 
     public boolean unregisterProvider(@Nonnull String providerId) {
@@ -89,36 +199,44 @@ public class TooltipRegistry {
             if (removed == null) return false;
             rebuildSnapshot();
         }
-        LOGGER.atInfo().log("Unregistered TooltipProvider: " + providerId);
-        composedCache.clear();
-        itemStateCache.clear();
+        int invalidated = invalidateProvider(providerId);
+        // Compositions that include this provider's output can no longer be produced
+        dropCompositionsOf(providerId);
+        LOGGER.atInfo().log("Unregistered TooltipProvider: " + providerId
+                + " (invalidated " + invalidated + " cached states)");
         return true;
     }
 
+    /** Removes every cached composition the given provider contributed to. */
+    private void dropCompositionsOf(@Nonnull String providerId) {
+        composedCache.removeIf(variants -> {
+            variants.values().removeIf(composed -> composed.hasSource(providerId));
+            return variants.isEmpty();
+        });
+    }
+
     private void rebuildSnapshot() {
         List<TooltipProvider> sorted = new ArrayList<>(providers.values());
         sorted.sort(Comparator.comparingInt(TooltipProvider::getPriority));
-        providerSnapshot = Collections.unmodifiableList(sorted);
+        providerSnapshot = new ProviderSnapshot(sorted);
     }
 
     /**
-     * Retrieves a cached composed tooltip by its combined hash.
-     * Useful for looking up visual overrides when reconstructing virtual items.
+     * Retrieves a cached composed tooltip by its combined hash, preferring the
+     * locale-less variant. Useful for looking up visual overrides when
+     * reconstructing virtual items; all locale variants of one hash share the
+     * same visual overrides and translation keys.
      */
     @Nullable
     public ComposedTooltip getComposed(@Nonnull String combinedHash) {
-        // Fast path: exact match for locale-less entries
-        ComposedTooltip exact = composedCache.get(combinedHash);
-        if (exact != null) return exact;
-
-        // Fallback: find any locale-specific entry with this hash
-        String prefix = combinedHash + ":";
-        for (Map.Entry<String, ComposedTooltip> entry : composedCache.entrySet()) {
-            if (entry.getKey().startsWith(prefix)) {
-                return entry.getValue();
-            }
-        }
-        return null;
+        Map<String, ComposedTooltip> variants = composedCache.get(combinedHash);
+        if (variants == null) return null;
+
+        ComposedTooltip localeLess = variants.get("");
+        if (localeLess != null) return localeLess;
+
+        Iterator<ComposedTooltip> it = variants.values().iterator();
+        return it.hasNext() ? it.next() : null;
     }
 
     // ─────────────────────────────────────────────────────────────────────
@@ -148,11 +266,19 @@ public class TooltipRegistry {
      * <ol>
      *   <li><b>Item-state cache</b> — keyed by {@code (itemId, metadata, locale)}.
      *       If the exact same item state has been seen before, returns instantly
-     *       without calling any provider.</li>
+     *       without calling any provider. On a miss, if all applicable providers
+     *       {@linkplain TooltipProvider#getMetadataPaths() declare their metadata
+     *       paths}, a second key built from only those values is tried. A state
+     *       from an older {@linkplain #invalidateAll() epoch} is revalidated by
+     *       re-querying the providers and kept if their output is unchanged.</li>
      *   <li><b>Composed cache</b> — keyed by combined hash + locale. If different items
      *       happen to produce the same provider outputs, they share the composed
      *       result.</li>
      * </ol>
+     * Both levels only include the locale if at least one applicable provider
+     * is {@linkplain TooltipProvider#isLocaleSensitive() locale-sensitive};
+     * otherwise one composition is shared by every language, and only the
+     * original description it is rendered onto differs per player.
      *
      * @param itemId   the real item ID
      * @param metadata the item's metadata JSON, or null
@@ -162,74 +288,423 @@ public class TooltipRegistry {
     @Nullable
     public ComposedTooltip compose(@Nonnull String itemId, @Nullable String metadata,
                                    @Nullable String locale) {
-        // ── Fast path: item-state cache (locale-aware) ──
-        String localeSuffix = locale != null ? "\1" + locale : "";
-        String stateKey = (metadata != null ? itemId + "\0" + metadata : itemId) + localeSuffix;
-        ComposedTooltip stateCached = itemStateCache.get(stateKey);
-        if (stateCached != null) {
-            return stateCached == EMPTY_SENTINEL ? null : stateCached;
+        // Captured up front: a result computed while the epoch moves on is cached as stale
+        long currentEpoch = epoch.get();
+
+        DispatchEntry dispatch = providerSnapshot.dispatchFor(itemId);
+        List<ProviderInfo> candidates;
+        boolean localeSensitive;
+        if (metadata != null) {
+            candidates = dispatch.withMetadata;
+            localeSensitive = dispatch.localeSensitiveWithMetadata;
+        } else {
+            candidates = dispatch.withoutMetadata;
+            localeSensitive = dispatch.localeSensitiveWithoutMetadata;
+        }
+        if (candidates.isEmpty()) return null;
+
+        // Locale-independent compositions are cached once for all languages
+        String cacheLocale = localeSensitive ? locale : null;
+
+        // ── Fast path: item-state cache ──
+        // The probe key only references the given strings, so a hit allocates nothing.
+        CachedState cached = itemStateCache.get(ItemStateKey.probe(itemId, metadata, cacheLocale));
+        if (cached != null && cached.epoch == currentEpoch) {
+            return cached.result();
         }
+        ItemStateKey stateKey = ItemStateKey.of(itemId, metadata, cacheLocale);
 
-        List<TooltipProvider> snapshot = providerSnapshot;
-        if (snapshot.isEmpty()) return null;
+        // ── Single flight: one thread queries the providers per item state ──
+        CompletableFuture<CachedState> flight = new CompletableFuture<>();
+        CompletableFuture<CachedState> existing = inFlight.putIfAbsent(stateKey, flight);
+        if (existing != null) {
+            CachedState shared = awaitInFlight(existing);
+            if (shared != null && shared.epoch == currentEpoch) return shared.result();
+            // Leader failed, is too slow or predates an invalidation; compose
+            // independently without leading
+            return load(itemId, metadata, locale, dispatch, candidates, cacheLocale,
+                    stateKey, cached, currentEpoch).result();
+        }
+        try {
+            // The previous leader may have finished between our probe and putIfAbsent
+            CachedState recent = itemStateCache.get(stateKey);
+            CachedState state = recent != null && recent.epoch == currentEpoch
+                    ? recent
+                    : load(itemId, metadata, locale, dispatch, candidates, cacheLocale,
+                            stateKey, cached, currentEpoch);
+            flight.complete(state);
+            return state.result();
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(stateKey, flight);
+        }
+    }
 
+    /**
+     * Waits for another thread's in-flight composition.
+     *
+     * @return its state, or {@code null} if it failed or did not finish within
+     *         {@link #IN_FLIGHT_WAIT_MS}
+     */
+    @Nullable
+    private static CachedState awaitInFlight(@Nonnull CompletableFuture<CachedState> flight) {
+        try {
+            return flight.get(IN_FLIGHT_WAIT_MS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException | TimeoutException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Composes an item state after a cache miss (or a stale hit) and caches it:
+     * tries the projected key, queries the providers, and revalidates or
+     * replaces the stale entry.
+     *
+     * @param cached the stale entry found under the raw key, or {@code null}
+     */
+    @Nonnull
+    private CachedState load(@Nonnull String itemId, @Nullable String metadata, @Nullable String locale,
+                             @Nonnull DispatchEntry dispatch, @Nonnull List<ProviderInfo> candidates,
+                             @Nullable String cacheLocale, @Nonnull ItemStateKey stateKey,
+                             @Nullable CachedState cached, long currentEpoch) {
+        // Parsed at most once, on first access, and shared by all providers
+        ItemMetadataView metadataView = ItemMetadataView.of(metadata);
+
+        // ── Projected key: only the metadata values the providers read ──
+        ItemStateKey projectedKey = null;
+        if (metadata != null && dispatch.metadataPaths != null) {
+            projectedKey = ItemStateKey.of(itemId, project(metadataView, dispatch.metadataPaths), cacheLocale);
+            CachedState projected = itemStateCache.get(projectedKey);
+            if (projected != null) {
+                if (projected.epoch == currentEpoch) {
+                    cacheItemState(stateKey, projected, candidates);
+                    return projected;
+                }
+                if (cached == null) cached = projected;
+            }
+        }
+
+        // ── Query providers, highest priority first ──
+        // Once a description override (text or key) is settled, the additive
+        // lines of lower-priority providers would be discarded anyway, so
+        // providers that contribute nothing else are skipped.
         List<ProviderResult> results = null;
+        boolean descriptionSettled = false;
 
-        for (TooltipProvider provider : snapshot) {
-            try {
-                TooltipData data = provider.getTooltipData(itemId, metadata, locale);
-                if (data != null && !data.isEmpty()) {
-                    if (results == null) results = new ArrayList<>(snapshot.size());
-                    results.add(new ProviderResult(provider, data));
+        for (int i = candidates.size() - 1; i >= 0; i--) {
+            ProviderInfo info = candidates.get(i);
+            if (descriptionSettled && info.additiveOnly) continue;
+
+            TooltipData data = queryProvider(info, itemId, metadataView, locale, currentEpoch);
+            if (data != null && info.additiveOnly && !data.isAdditive()) {
+                data = info.dropOverrides(data);
+            }
+            if (data != null && !data.isEmpty()) {
+                if (results == null) results = new ArrayList<>(i + 1);
+                results.add(new ProviderResult(info.provider, data));
+                if (data.getDescriptionOverride() != null || data.getDescriptionTranslationKey() != null) {
+                    descriptionSettled = true;
                 }
-            } catch (Exception e) {
-                LOGGER.atWarning().log("TooltipProvider '" + provider.getProviderId()
-                        + "' threw exception for item '" + itemId + "': " + e.getMessage());
             }
         }
+        // Composition and hashing expect ascending priority order
+        if (results != null) Collections.reverse(results);
+
+        // ── Stale entry: keep it if the providers still produce the same output ──
+        CachedState state;
+        if (cached != null && cached.composed.hasSameContent(
+                results != null ? results : Collections.emptyList())) {
+            cached.epoch = currentEpoch;
+            state = cached;
+        } else {
+            ComposedTooltip result = results != null ? lookupOrCompose(results, cacheLocale) : EMPTY_SENTINEL;
+            state = new CachedState(result, currentEpoch);
+        }
+        cacheItemState(stateKey, state, candidates);
+        if (projectedKey != null) cacheItemState(projectedKey, state, candidates);
+        return state;
+    }
+
+    /**
+     * Returns one provider's contribution, from the provider result cache if
+     * its {@link TooltipCachePolicy} allows and a valid result is cached.
+     * Exceptions are logged and treated as "nothing to contribute" (and are
+     * not cached).
+     */
+    @Nullable
+    private TooltipData queryProvider(@Nonnull ProviderInfo info, @Nonnull String itemId,
+                                      @Nonnull ItemMetadataView metadata, @Nullable String locale,
+                                      long currentEpoch) {
+        ProviderResultCache.Key key = null;
+        ProviderResultCache.Entry prepared = null;
+        if (info.cachePolicy.isCacheable()) {
+            String raw = metadata.getRaw();
+            String metadataKey = raw != null && info.metadataPaths != null
+                    ? project(metadata, info.metadataPaths)
+                    : raw;
+            key = new ProviderResultCache.Key(info.provider.getProviderId(), itemId, metadataKey,
+                    info.localeSensitive ? locale : null);
+            ProviderResultCache.Entry cached = resultCache.get(key, currentEpoch);
+            if (cached != null) return cached.data;
+            prepared = resultCache.prepare(key, info.cachePolicy, currentEpoch);
+        }
 
-        if (results == null) {
-            cacheItemState(stateKey, EMPTY_SENTINEL);
+        try {
+            TooltipData data = info.provider.getTooltipData(itemId, metadata, locale);
+            if (key != null) resultCache.put(key, prepared, data);
+            return data;
+        } catch (Exception e) {
+            LOGGER.atWarning().log("TooltipProvider '" + info.provider.getProviderId()
+                    + "' threw exception for item '" + itemId + "': " + e.getMessage());
             return null;
         }
+    }
 
-        // Build combined hash input for virtual ID generation
-        StringBuilder hashBuilder = new StringBuilder();
-        for (ProviderResult r : results) {
-            hashBuilder.append(r.provider.getProviderId())
-                    .append(':')
-                    .append(r.data.getStableHashInput());
-            
-            // Include translation keys in hash input
-            if (r.data.getNameTranslationKey() != null) {
-                hashBuilder.append(":nk=").append(r.data.getNameTranslationKey());
+    /**
+     * Batch variant of {@link #compose(String, String, String)} for all items
+     * of one packet.
+     * <p>
+     * Identical {@code (itemId, metadata)} pairs (e.g. a backpack full of
+     * identical arrow stacks) are composed once; every duplicate receives the
+     * same result instance.
+     *
+     * @param itemIds  the real item IDs
+     * @param metadata the items' metadata JSON (entries may be null), parallel to {@code itemIds}
+     * @param locale   the player's language code, or null if unknown
+     * @return the composed tooltips indexed like the input, with {@code null}
+     *         entries for items no provider has anything for
+     */
+    @Nonnull
+    public ComposedTooltip[] composeAll(@Nonnull String[] itemIds, @Nonnull String[] metadata,
+                                        @Nullable String locale) {
+        ComposedTooltip[] results = new ComposedTooltip[itemIds.length];
+        int[] table = dedupeTable(itemIds.length);
+        int mask = table.length - 1;
+        for (int i = 0; i < itemIds.length; i++) {
+            // String hash codes are cached, so hashing a slot is cheap
+            int h = itemIds[i].hashCode() * 31 + Objects.hashCode(metadata[i]);
+            int bucket = (h ^ (h >>> 16)) & mask;
+            int first;
+            while ((first = table[bucket]) >= 0
+                    && !(itemIds[first].equals(itemIds[i]) && Objects.equals(metadata[first], metadata[i]))) {
+                bucket = (bucket + 1) & mask;
             }
-            if (r.data.getDescriptionTranslationKey() != null) {
-                hashBuilder.append(":dk=").append(r.data.getDescriptionTranslationKey());
+            if (first >= 0) {
+                results[i] = results[first];
+                continue;
             }
+            table[bucket] = i;
+            results[i] = compose(itemIds[i], metadata[i], locale);
+        }
+        return results;
+    }
+
+    /**
+     * Returns this thread's dedupe table, cleared and with room for
+     * {@code slots} entries at a load factor of at most one half.
+     */
+    @Nonnull
+    private static int[] dedupeTable(int slots) {
+        int[] table = DEDUPE_TABLE.get();
+        if (table.length < slots * 2) {
+            table = new int[Integer.highestOneBit(Math.max(slots, 1) * 2 - 1) << 1];
+            DEDUPE_TABLE.set(table);
+        }
+        Arrays.fill(table, -1);
+        return table;
+    }
+
+    /**
+     * Builds the canonical projection of the metadata onto the given paths:
+     * each path followed by the JSON of its value (or nothing if absent).
+     */
+    @Nonnull
+    private static String project(@Nonnull ItemMetadataView metadata, @Nonnull List<String> paths) {
+        StringBuilder sb = new StringBuilder().append(PROJECTION_MARKER);
+        for (String path : paths) {
+            String json = metadata.getJson(path);
+            sb.append(path).append(json != null ? '=' : '!');
+            if (json != null) sb.append(json.length()).append(':').append(json);
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
 
-            if (r.data.getVisualOverrides() != null) {
-                r.data.getVisualOverrides().appendHashInput(hashBuilder);
+    /**
+     * Hashes the provider results into a combined hash and returns the shared
+     * composition for it from the composed cache, building it if necessary.
+     * <p>
+     * If the cached entry for that hash was composed from different hash inputs
+     * (a 64-bit collision), the hash is recomputed with the next seed until a
+     * free or matching slot is found, so two different tooltips never share one
+     * virtual ID.
+     */
+    @Nonnull
+    private ComposedTooltip lookupOrCompose(@Nonnull List<ProviderResult> results, @Nullable String locale) {
+        for (int seed = 0; seed < MAX_HASH_PROBES; seed++) {
+            String combinedHash = toHex(hashResults(results, seed));
+
+            // Check composed cache (per-locale variant to avoid mixing languages)
+            ComposedTooltip candidate = null;
+            ConcurrentHashMap<String, ComposedTooltip> variants = composedCache.get(combinedHash);
+            if (variants != null) candidate = variants.get(localeKey(locale));
+            if (candidate == null || isOutdated(candidate, results)) {
+                // If the variant map is evicted or dropped concurrently, the new
+                // entry is merely not cached; the caller still gets it.
+                ConcurrentHashMap<String, ComposedTooltip> v = variants != null ? variants
+                        : composedCache.computeIfAbsent(combinedHash, h -> new ConcurrentHashMap<>(4));
+                candidate = v.compute(localeKey(locale), (l, current) ->
+                        current == null || isOutdated(current, results)
+                                ? buildComposedTooltip(results, combinedHash)
+                                : current);
             }
-            hashBuilder.append(';');
+            if (candidate.hasSameHashInputs(results)) {
+                return candidate;
+            }
+            LOGGER.atWarning().log("Combined hash collision on " + combinedHash
+                    + " (seed " + seed + "), rehashing");
         }
-        String combinedHashInput = hashBuilder.toString();
-        String combinedHash = computeHash(combinedHashInput);
+        // Practically unreachable with 64-bit hashes; compose without caching.
+        return buildComposedTooltip(results, toHex(hashResults(results, MAX_HASH_PROBES)));
+    }
 
-        // Check composed cache (locale-aware key to avoid mixing languages)
-        String composedCacheKey = locale != null ? combinedHash + ":" + locale : combinedHash;
-        final List<ProviderResult> finalResults = results;
-        ComposedTooltip result = composedCache.computeIfAbsent(composedCacheKey, h ->
-                buildComposedTooltip(finalResults, combinedHash));
+    /**
+     * Whether a cached composition has the same hash inputs as
+     * {@code results} but different content, i.e. a provider changed its
+     * lines or overrides without changing its hash input (typically after a
+     * config reload). Such an entry is replaced rather than reused.
+     */
+    private static boolean isOutdated(@Nonnull ComposedTooltip composed, @Nonnull List<ProviderResult> results) {
+        return composed.hasSameHashInputs(results) && !composed.hasSameContent(results);
+    }
+
+    /**
+     * Mixes every provider's ID and {@linkplain TooltipData#getFingerprint()
+     * result fingerprint} (hash input, translation keys, visual overrides)
+     * into a 64-bit hash.
+     * <p>
+     * The fingerprints are already well-mixed 64-bit values, so a
+     * multiply-rotate step per value and a final avalanche suffice. Provider
+     * IDs only need to tell the few registered providers apart, so their
+     * cached {@link String#hashCode()} is used.
+     */
+    private static long hashResults(@Nonnull List<ProviderResult> results, long seed) {
+        long h = seed * 0x9E3779B97F4A7C15L;
+        for (ProviderResult r : results) {
+            h = mixHash(h, r.provider.getProviderId().hashCode());
+            h = mixHash(h, r.data.getFingerprint());
+        }
+        // SplitMix64 finalizer
+        h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+        return h ^ (h >>> 31);
+    }
 
-        cacheItemState(stateKey, result);
-        return result;
+    private static long mixHash(long h, long value) {
+        return Long.rotateLeft(h ^ (value * 0xC2B2AE3D27D4EB4FL), 31) * 0x9E3779B185EBCA87L;
     }
 
-    private void cacheItemState(@Nonnull String stateKey, @Nonnull ComposedTooltip value) {
-        if (itemStateCache.size() < STATE_CACHE_MAX) {
-            itemStateCache.put(stateKey, value);
+    /** Formats a hash as a fixed-width, 16-character lowercase hex string. */
+    @Nonnull
+    private static String toHex(long hash) {
+        String hex = Long.toHexString(hash);
+        if (hex.length() == 16) return hex;
+        return "0".repeat(16 - hex.length()) + hex;
+    }
+
+    /**
+     * Caches an item state and records it in the reverse indexes.
+     * <p>
+     * The key is indexed both before and after the insertion. Eviction
+     * listeners run outside the cache lock, so an eviction of an earlier
+     * entry for the same key can unindex it concurrently with this call; the
+     * second pass restores the index entry if that happened. The listener only
+     * unindexes keys that are no longer cached, and checks this under the
+     * index bin's lock, so it cannot undo the second pass.
+     */
+    private void cacheItemState(@Nonnull ItemStateKey stateKey, @Nonnull CachedState value,
+                                @Nonnull List<ProviderInfo> consulted) {
+        String itemId = stateKey.getItemId();
+        indexItemState(stateKey);
+        for (ProviderInfo info : consulted) {
+            itemsByProvider.computeIfAbsent(info.provider.getProviderId(), k -> ConcurrentHashMap.newKeySet())
+                    .add(itemId);
         }
+        itemStateCache.put(stateKey, value);
+        indexItemState(stateKey);
+    }
+
+    private void indexItemState(@Nonnull ItemStateKey stateKey) {
+        addToIndex(stateKeysByItem, stateKey.getItemId(), stateKey);
+        addToIndex(stateKeysByLocale, localeKey(stateKey.getLocale()), stateKey);
+    }
+
+    /**
+     * Eviction listener: removes an evicted item state from the reverse
+     * indexes, unless the same key has been cached again since.
+     */
+    private void unindexItemState(@Nonnull ItemStateKey stateKey, @Nonnull CachedState value) {
+        removeFromIndexIfUncached(stateKeysByItem, stateKey.getItemId(), stateKey);
+        removeFromIndexIfUncached(stateKeysByLocale, localeKey(stateKey.getLocale()), stateKey);
+    }
+
+    private void removeFromIndexIfUncached(@Nonnull ConcurrentHashMap<String, Set<ItemStateKey>> index,
+                                           @Nonnull String indexKey, @Nonnull ItemStateKey stateKey) {
+        index.computeIfPresent(indexKey, (k, set) -> {
+            if (!itemStateCache.containsKey(stateKey)) set.remove(stateKey);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    private static <T> void addToIndex(@Nonnull ConcurrentHashMap<String, Set<T>> index,
+                                       @Nonnull String indexKey, @Nonnull T value) {
+        index.compute(indexKey, (k, set) -> {
+            if (set == null) set = ConcurrentHashMap.newKeySet();
+            set.add(value);
+            return set;
+        });
+    }
+
+    private static <T> void removeFromIndex(@Nonnull ConcurrentHashMap<String, Set<T>> index,
+                                            @Nonnull String indexKey, @Nonnull T value) {
+        index.computeIfPresent(indexKey, (k, set) -> {
+            set.remove(value);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    @Nonnull
+    private static String localeKey(@Nullable String locale) {
+        return locale != null ? locale : "";
+    }
+
+    /**
+     * Returns hit, miss and eviction counters of the composed cache.
+     */
+    @Nonnull
+    public CacheStats getComposedCacheStats() {
+        return composedCache.stats();
+    }
+
+    /**
+     * Returns hit, miss and eviction counters of the item-state cache.
+     */
+    @Nonnull
+    public CacheStats getStateCacheStats() {
+        return itemStateCache.stats();
+    }
+
+    /**
+     * Returns hit, miss and eviction counters of the per-provider result cache.
+     */
+    @Nonnull
+    public CacheStats getProviderResultCacheStats() {
+        return resultCache.stats();
     }
 
     /**
@@ -242,8 +717,8 @@ public class TooltipRegistry {
         String descriptionOverride = null;
         String nameTranslationKey = null;
         String descriptionTranslationKey = null;
-        org.herolias.tooltips.api.ItemVisualOverrides.Builder visualBuilder = org.herolias.tooltips.api.ItemVisualOverrides.builder();
-        boolean hasVisuals = false;
+        ItemVisualOverrides visuals = null;
+        ItemVisualOverrides.Builder visualBuilder = null;
         List<String> allLines = new ArrayList<>();
 
         // Results are already in priority order (ascending).
@@ -269,38 +744,16 @@ public class TooltipRegistry {
                 descriptionOverride = null;
             }
 
-            org.herolias.tooltips.api.ItemVisualOverrides vo = data.getVisualOverrides();
-            if (vo != null && !vo.isEmpty()) {
-                hasVisuals = true;
-                if (vo.getModel() != null) visualBuilder.model(vo.getModel());
-                if (vo.getTexture() != null) visualBuilder.texture(vo.getTexture());
-                if (vo.getIcon() != null) visualBuilder.icon(vo.getIcon());
-                if (vo.getAnimation() != null) visualBuilder.animation(vo.getAnimation());
-                if (vo.getSoundEventIndex() != null) visualBuilder.soundEventIndex(vo.getSoundEventIndex());
-                if (vo.getScale() != null) visualBuilder.scale(vo.getScale());
-                if (vo.getQualityIndex() != null) visualBuilder.qualityIndex(vo.getQualityIndex());
-                if (vo.getLight() != null) visualBuilder.light(vo.getLight());
-                if (vo.getParticles() != null) visualBuilder.particles(vo.getParticles());
-                if (vo.getReticleIndex() != null) visualBuilder.reticleIndex(vo.getReticleIndex());
-                if (vo.getIconProperties() != null) visualBuilder.iconProperties(vo.getIconProperties());
-                if (vo.getFirstPersonParticles() != null) visualBuilder.firstPersonParticles(vo.getFirstPersonParticles());
-                if (vo.getTrails() != null) visualBuilder.trails(vo.getTrails());
-                if (vo.getDroppedItemAnimation() != null) visualBuilder.droppedItemAnimation(vo.getDroppedItemAnimation());
-                if (vo.getItemSoundSetIndex() != null) visualBuilder.itemSoundSetIndex(vo.getItemSoundSetIndex());
-                if (vo.getItemAppearanceConditions() != null) visualBuilder.itemAppearanceConditions(vo.getItemAppearanceConditions());
-                if (vo.getPullbackConfig() != null) visualBuilder.pullbackConfig(vo.getPullbackConfig());
-                if (vo.getClipsGeometry() != null) visualBuilder.clipsGeometry(vo.getClipsGeometry());
-                if (vo.getRenderDeployablePreview() != null) visualBuilder.renderDeployablePreview(vo.getRenderDeployablePreview());
-                if (vo.getSet() != null) visualBuilder.set(vo.getSet());
-                if (vo.getCategories() != null) visualBuilder.categories(vo.getCategories());
-                if (vo.getDisplayEntityStatsHUD() != null) visualBuilder.displayEntityStatsHUD(vo.getDisplayEntityStatsHUD());
-                if (vo.getItemEntity() != null) visualBuilder.itemEntity(vo.getItemEntity());
-                if (vo.getDurability() != null) visualBuilder.durability(vo.getDurability());
-                if (vo.getArmor() != null) visualBuilder.armor(vo.getArmor());
-                if (vo.getWeapon() != null) visualBuilder.weapon(vo.getWeapon());
-                if (vo.getTool() != null) visualBuilder.tool(vo.getTool());
-                if (vo.getAdditionalArmorStatModifiers() != null) visualBuilder.addArmorStatModifiers(vo.getAdditionalArmorStatModifiers());
-                if (vo.getAdditionalWeaponStatModifiers() != null) visualBuilder.addWeaponStatModifiers(vo.getAdditionalWeaponStatModifiers());
+            // Only providers whose presence mask is non-zero are merged. A single
+            // provider's overrides are reused as-is; the builder is created for the second.
+            ItemVisualOverrides vo = data.getVisualOverrides();
+            if (vo != null && vo.getPresenceMask() != 0) {
+                if (visuals == null) {
+                    visuals = vo;
+                } else {
+                    if (visualBuilder == null) visualBuilder = ItemVisualOverrides.builder().overlay(visuals);
+                    visualBuilder.overlay(vo);
+                }
             }
 
             allLines.addAll(data.getLines());
@@ -312,8 +765,9 @@ public class TooltipRegistry {
                 descriptionOverride,
                 nameTranslationKey,
                 descriptionTranslationKey,
-                hasVisuals ? visualBuilder.build() : null,
-                combinedHash
+                visualBuilder != null ? visualBuilder.build() : visuals,
+                combinedHash,
+                results
         );
     }
 
@@ -332,6 +786,8 @@ public class TooltipRegistry {
         private final String descriptionTranslationKey;
         private final ItemVisualOverrides visualOverrides;
         private final String combinedHash;
+        /** The provider results this was composed from, kept for collision checks. */
+        private final List<ProviderResult> sources;
 
         ComposedTooltip(List<String> additiveLines,
                         @Nullable String nameOverride,
@@ -339,7 +795,8 @@ public class TooltipRegistry {
                         @Nullable String nameTranslationKey,
                         @Nullable String descriptionTranslationKey,
                         @Nullable ItemVisualOverrides visualOverrides,
-                        @Nonnull String combinedHash) {
+                        @Nonnull String combinedHash,
+                        @Nonnull List<ProviderResult> sources) {
             this.additiveLines = additiveLines;
             this.nameOverride = nameOverride;
             this.descriptionOverride = descriptionOverride;
@@ -347,6 +804,7 @@ public class TooltipRegistry {
             this.descriptionTranslationKey = descriptionTranslationKey;
             this.visualOverrides = visualOverrides;
             this.combinedHash = combinedHash;
+            this.sources = sources;
         }
 
         @Nonnull public List<String> getAdditiveLines() { return additiveLines; }
@@ -357,6 +815,41 @@ public class TooltipRegistry {
         @Nullable public ItemVisualOverrides getVisualOverrides() { return visualOverrides; }
         @Nonnull public String getCombinedHash() { return combinedHash; }
 
+        /** Whether the given provider contributed to this tooltip. */
+        boolean hasSource(@Nonnull String providerId) {
+            for (ProviderResult source : sources) {
+                if (source.provider.getProviderId().equals(providerId)) return true;
+            }
+            return false;
+        }
+
+        /**
+         * Whether this tooltip was composed from exactly the same hash inputs
+         * (provider IDs, stable hash inputs, translation keys and visual
+         * overrides) as {@code results}. A {@code false} result for an entry
+         * found under the same combined hash indicates a hash collision.
+         */
+        boolean hasSameHashInputs(@Nonnull List<ProviderResult> results) {
+            if (sources.size() != results.size()) return false;
+            for (int i = 0; i < results.size(); i++) {
+                if (!sources.get(i).hasSameHashInput(results.get(i))) return false;
+            }
+            return true;
+        }
+
+        /**
+         * Whether this tooltip was composed from exactly the same provider
+         * output as {@code results}: the same hash inputs, and also the same
+         * lines and name/description overrides.
+         */
+        boolean hasSameContent(@Nonnull List<ProviderResult> results) {
+            if (sources.size() != results.size()) return false;
+            for (int i = 0; i < results.size(); i++) {
+                if (!sources.get(i).hasSameContent(results.get(i))) return false;
+            }
+            return true;
+        }
+
         /**
          * Builds the final description string by applying this composed tooltip
          * to the item's original description.
@@ -400,6 +893,245 @@ public class TooltipRegistry {
     //  Internal helpers
     // ─────────────────────────────────────────────────────────────────────
 
+    /**
+     * Item-state cache value: a composition plus the epoch it was last
+     * validated in. Raw and projected keys of one state share the same
+     * instance, so re-tagging one re-tags both.
+     */
+    private static final class CachedState {
+        final ComposedTooltip composed;
+        volatile long epoch;
+
+        CachedState(@Nonnull ComposedTooltip composed, long epoch) {
+            this.composed = composed;
+            this.epoch = epoch;
+        }
+
+        @Nullable
+        ComposedTooltip result() {
+            return composed == EMPTY_SENTINEL ? null : composed;
+        }
+    }
+
+    /**
+     * Immutable, priority-sorted provider list plus a lazily filled dispatch
+     * table mapping each item ID to the providers that apply to it.
+     * <p>
+     * A new snapshot (with an empty dispatch table) is published whenever the
+     * provider set changes, so table entries never need invalidation. An item
+     * whose categories could not be resolved (asset not loaded yet) is matched
+     * without them but not added to the table, so it is matched again once the
+     * asset exists.
+     */
+    private static final class ProviderSnapshot {
+        static final ProviderSnapshot EMPTY = new ProviderSnapshot(Collections.emptyList());
+
+        /** Categories of an item that was resolved but declares none. */
+        private static final String[] NO_CATEGORIES = new String[0];
+
+        private final List<ProviderInfo> sorted;
+        private final boolean usesCategories;
+        private final ConcurrentHashMap<String, DispatchEntry> dispatchTable = new ConcurrentHashMap<>();
+
+        ProviderSnapshot(@Nonnull List<TooltipProvider> sortedProviders) {
+            List<ProviderInfo> infos = new ArrayList<>(sortedProviders.size());
+            boolean categories = false;
+            for (TooltipProvider provider : sortedProviders) {
+                ProviderInfo info = new ProviderInfo(provider);
+                categories |= info.applicability.usesCategories();
+                infos.add(info);
+            }
+            this.sorted = Collections.unmodifiableList(infos);
+            this.usesCategories = categories;
+        }
+
+        /**
+         * Returns the providers (in priority order) that apply to the given item,
+         * and the metadata paths they read.
+         */
+        @Nonnull
+        DispatchEntry dispatchFor(@Nonnull String itemId) {
+            if (sorted.isEmpty()) return DispatchEntry.NONE;
+            DispatchEntry entry = dispatchTable.get(itemId);
+            if (entry != null) return entry;
+
+            String[] categories = usesCategories ? resolveCategories(itemId) : null;
+            if (usesCategories && categories == null) {
+                return buildEntry(itemId, null);
+            }
+            return dispatchTable.computeIfAbsent(itemId, id -> buildEntry(id, categories));
+        }
+
+        @Nonnull
+        private DispatchEntry buildEntry(@Nonnull String itemId, @Nullable String[] categories) {
+            List<ProviderInfo> withMetadata = new ArrayList<>();
+            List<ProviderInfo> withoutMetadata = new ArrayList<>();
+            TreeSet<String> paths = new TreeSet<>();
+            boolean projectable = true;
+            boolean sensitiveWithMetadata = false;
+            boolean sensitiveWithoutMetadata = false;
+            for (ProviderInfo info : sorted) {
+                if (!info.applicability.matchesItem(itemId, categories)) continue;
+                withMetadata.add(info);
+                sensitiveWithMetadata |= info.localeSensitive;
+                if (!info.applicability.requiresMetadata()) {
+                    withoutMetadata.add(info);
+                    sensitiveWithoutMetadata |= info.localeSensitive;
+                }
+                if (info.metadataPaths == null) {
+                    projectable = false;
+                } else {
+                    paths.addAll(info.metadataPaths);
+                }
+            }
+            return new DispatchEntry(withMetadata, withoutMetadata,
+                    projectable ? new ArrayList<>(paths) : null,
+                    sensitiveWithMetadata, sensitiveWithoutMetadata);
+        }
+
+        /**
+         * Returns the item's categories, {@link #NO_CATEGORIES} if it has none,
+         * or {@code null} if they could not be resolved.
+         */
+        @Nullable
+        private static String[] resolveCategories(@Nonnull String itemId) {
+            try {
+                Item item = Item.getAssetMap().getAsset(itemId);
+                if (item == null) return null;
+                ItemBase packet = item.toPacket();
+                if (packet == null) return null;
+                return packet.categories != null ? packet.categories : NO_CATEGORIES;
+            } catch (Exception e) {
+                LOGGER.atFine().log("Could not resolve categories for " + itemId + ": " + e.getMessage());
+                return null;
+            }
+        }
+    }
+
+    /**
+     * A registered provider together with the declarations it made at
+     * registration time. A throwing declaration falls back to the most
+     * conservative value.
+     */
+    static final class ProviderInfo {
+        final TooltipProvider provider;
+        final TooltipApplicability applicability;
+        /** Sorted declared metadata paths, or {@code null} for the whole metadata. */
+        @Nullable final List<String> metadataPaths;
+        /** Whether the provider's output depends on the locale. */
+        final boolean localeSensitive;
+        /** Whether the provider only ever contributes additive lines. */
+        final boolean additiveOnly;
+        final TooltipCachePolicy cachePolicy;
+        /** Set once an additive-only contract violation has been logged. */
+        private volatile boolean violationLogged;
+
+        ProviderInfo(@Nonnull TooltipProvider provider) {
+            this.provider = provider;
+
+            TooltipApplicability app = null;
+            try {
+                app = provider.getApplicability();
+            } catch (Exception e) {
+                logDeclarationFailure(provider, "getApplicability", e);
+            }
+            this.applicability = app != null ? app : TooltipApplicability.allItems();
+
+            Set<String> declared = null;
+            try {
+                declared = provider.getMetadataPaths();
+            } catch (Exception e) {
+                logDeclarationFailure(provider, "getMetadataPaths", e);
+            }
+            this.metadataPaths = declared != null ? List.copyOf(new TreeSet<>(declared)) : null;
+
+            boolean sensitive = true;
+            try {
+                sensitive = provider.isLocaleSensitive();
+            } catch (Exception e) {
+                logDeclarationFailure(provider, "isLocaleSensitive", e);
+            }
+            this.localeSensitive = sensitive;
+
+            boolean additive = false;
+            try {
+                additive = provider.isAdditiveOnly();
+            } catch (Exception e) {
+                logDeclarationFailure(provider, "isAdditiveOnly", e);
+            }
+            this.additiveOnly = additive;
+
+            TooltipCachePolicy policy = null;
+            try {
+                policy = provider.getCachePolicy();
+            } catch (Exception e) {
+                logDeclarationFailure(provider, "getCachePolicy", e);
+            }
+            this.cachePolicy = policy != null ? policy : TooltipCachePolicy.never();
+        }
+
+        /**
+         * Keeps only the additive lines of a result from a provider that
+         * declared itself additive-only but returned overrides. Logged once
+         * per registration.
+         */
+        @Nonnull
+        TooltipData dropOverrides(@Nonnull TooltipData data) {
+            if (!violationLogged) {
+                violationLogged = true;
+                LOGGER.atWarning().log("TooltipProvider '" + provider.getProviderId()
+                        + "' declares isAdditiveOnly() but returned overrides; ignoring them");
+            }
+            return TooltipData.builder()
+                    .addLines(data.getLines())
+                    .hashInput(data.getStableHashInput())
+                    .build();
+        }
+
+        private static void logDeclarationFailure(@Nonnull TooltipProvider provider, @Nonnull String method,
+                                                  @Nonnull Exception e) {
+            LOGGER.atWarning().log("TooltipProvider '" + provider.getProviderId()
+                    + "' threw exception from " + method + "(): " + e.getMessage());
+        }
+    }
+
+    private static final class DispatchEntry {
+        static final DispatchEntry NONE = new DispatchEntry(
+                Collections.emptyList(), Collections.emptyList(), null, false, false);
+
+        /** Providers to call for items that carry metadata. */
+        final List<ProviderInfo> withMetadata;
+        /** Providers to call for items without metadata. */
+        final List<ProviderInfo> withoutMetadata;
+        /**
+         * Sorted union of the metadata paths read by {@link #withMetadata}, or
+         * {@code null} if any of them depends on the whole metadata.
+         */
+        @Nullable final List<String> metadataPaths;
+        /** Whether any provider in {@link #withMetadata} is locale-sensitive. */
+        final boolean localeSensitiveWithMetadata;
+        /** Whether any provider in {@link #withoutMetadata} is locale-sensitive. */
+        final boolean localeSensitiveWithoutMetadata;
+
+        DispatchEntry(List<ProviderInfo> withMetadata, List<ProviderInfo> withoutMetadata,
+                      @Nullable List<String> metadataPaths,
+                      boolean localeSensitiveWithMetadata, boolean localeSensitiveWithoutMetadata) {
+            this.withMetadata = withMetadata.isEmpty() ? Collections.emptyList() : withMetadata;
+            this.withoutMetadata = withoutMetadata.isEmpty() ? Collections.emptyList() : withoutMetadata;
+            this.metadataPaths = metadataPaths;
+            this.localeSensitiveWithMetadata = localeSensitiveWithMetadata;
+            this.localeSensitiveWithoutMetadata = localeSensitiveWithoutMetadata;
+        }
+
+        /** Whether the given provider applies to this item (with or without metadata). */
+        boolean contains(@Nonnull TooltipProvider provider) {
+            for (ProviderInfo info : withMetadata) {
+                if (info.provider == provider) return true;
+            }
+            return false;
+        }
+    }
+
     private static final class ProviderResult {
         final TooltipProvider provider;
         final TooltipData data;
@@ -408,33 +1140,145 @@ public class TooltipRegistry {
             this.provider = provider;
             this.data = data;
         }
+
+        /**
+         * Compares the fingerprints first, then the exact inputs behind them,
+         * so a fingerprint collision is still detected.
+         */
+        boolean hasSameHashInput(@Nonnull ProviderResult other) {
+            return data.getFingerprint() == other.data.getFingerprint()
+                    && provider.getProviderId().equals(other.provider.getProviderId())
+                    && data.getStableHashInput().equals(other.data.getStableHashInput())
+                    && Objects.equals(data.getNameTranslationKey(), other.data.getNameTranslationKey())
+                    && Objects.equals(data.getDescriptionTranslationKey(), other.data.getDescriptionTranslationKey())
+                    && sameVisualHashInput(data.getVisualOverrides(), other.data.getVisualOverrides());
+        }
+
+        /** {@link #hasSameHashInput}, plus equal lines and name/description overrides. */
+        boolean hasSameContent(@Nonnull ProviderResult other) {
+            return hasSameHashInput(other)
+                    && data.getLines().equals(other.data.getLines())
+                    && Objects.equals(data.getNameOverride(), other.data.getNameOverride())
+                    && Objects.equals(data.getDescriptionOverride(), other.data.getDescriptionOverride());
+        }
+
+        private static boolean sameVisualHashInput(@Nullable ItemVisualOverrides a,
+                                                   @Nullable ItemVisualOverrides b) {
+            if (a == b) return true;
+            if (a == null || b == null) return false;
+            return a.getHashInput().equals(b.getHashInput());
+        }
+    }
+
+    // ─────────────────────────────────────────────────────────────────────
+    //  Invalidation
+    // ─────────────────────────────────────────────────────────────────────
+
+    /**
+     * Returns the invalidation generation. It advances on every provider
+     * registration change and every invalidation; compositions obtained under
+     * the same generation are still current.
+     */
+    public long getGeneration() {
+        return generation.get();
     }
 
     /**
-     * Computes a deterministic 8-character hex hash from the given input.
+     * Drops every cached state (all metadata variants and locales) of one
+     * base item, so its next {@link #compose} re-queries the providers.
+     * Provider results cached with a TTL policy for the item are dropped too.
+     *
+     * @return the number of item states dropped
+     */
+    public int invalidateItem(@Nonnull String itemId) {
+        generation.incrementAndGet();
+        resultCache.invalidateItem(itemId);
+        return dropItemStates(itemId);
+    }
+
+    /** Drops the cached states of one base item, keeping cached provider results. */
+    private int dropItemStates(@Nonnull String itemId) {
+        Set<ItemStateKey> keys = stateKeysByItem.remove(itemId);
+        if (keys == null) return 0;
+        for (ItemStateKey key : keys) {
+            itemStateCache.remove(key);
+            removeFromIndex(stateKeysByLocale, localeKey(key.getLocale()), key);
+        }
+        return keys.size();
+    }
+
+    /**
+     * Drops the cached states of several base items.
+     *
+     * @return the number of item states dropped
+     */
+    public int invalidateItems(@Nonnull Collection<String> itemIds) {
+        int invalidated = 0;
+        for (String itemId : itemIds) {
+            invalidated += invalidateItem(itemId);
+        }
+        return invalidated;
+    }
+
+    /**
+     * Returns the base item IDs the given provider has been consulted for
+     * since its cached states were last dropped.
      */
     @Nonnull
-    static String computeHash(@Nonnull String input) {
-        try {
-            MessageDigest md = MessageDigest.getInstance("MD5");
-            byte[] digest = md.digest(input.getBytes(java.nio.charset.StandardCharsets.UTF_8));
-            StringBuilder hex = new StringBuilder();
-            for (int i = 0; i < 4; i++) {
-                hex.append(String.format("%02x", digest[i]));
-            }
-            return hex.toString();
-        } catch (Exception e) {
-            // Fallback: simple hashCode-based hash
-            return String.format("%08x", input.hashCode());
+    public Set<String> getProviderItemIds(@Nonnull String providerId) {
+        Set<String> itemIds = itemsByProvider.get(providerId);
+        return itemIds != null ? Set.copyOf(itemIds) : Collections.emptySet();
+    }
+
+    /**
+     * Drops every cached result of the given provider, and every cached state
+     * it was consulted for.
+     *
+     * @return the number of item states dropped
+     */
+    public int invalidateProvider(@Nonnull String providerId) {
+        generation.incrementAndGet();
+        resultCache.invalidateProvider(providerId);
+        Set<String> itemIds = itemsByProvider.remove(providerId);
+        if (itemIds == null) return 0;
+        int invalidated = 0;
+        for (String itemId : itemIds) {
+            invalidated += dropItemStates(itemId);
         }
+        return invalidated;
     }
 
     /**
-     * Clears all caches. Safe to call on reload or when provider logic
-     * changes (e.g. config reload in a consuming mod).
+     * Drops every cached state composed for the given locale.
+     *
+     * @param locale the language code, or {@code null} for locale-less states
+     * @return the number of item states dropped
+     */
+    public int invalidateLocale(@Nullable String locale) {
+        generation.incrementAndGet();
+        Set<ItemStateKey> keys = stateKeysByLocale.remove(localeKey(locale));
+        if (keys == null) return 0;
+        for (ItemStateKey key : keys) {
+            itemStateCache.remove(key);
+            removeFromIndex(stateKeysByItem, key.getItemId(), key);
+        }
+        return keys.size();
+    }
+
+    /**
+     * Marks every cached item state as stale in O(1) by advancing the epoch.
+     * <p>
+     * Nothing is removed. Each stale state is revalidated on its next access:
+     * the providers are queried again, and if their output (including lines
+     * and overrides, not just hash inputs) is unchanged the existing
+     * composition (and therefore its virtual ID) is kept and simply re-tagged
+     * with the new epoch. Otherwise it is recomposed, replacing any cached
+     * composition with the same hash inputs but outdated content.
      */
-    public void clearCache() {
-        composedCache.clear();
-        itemStateCache.clear();
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        long newEpoch = epoch.incrementAndGet();
+        LOGGER.atFine().log("Advanced tooltip cache epoch to " + newEpoch
+                + " (item-state cache: " + itemStateCache.stats() + ")");
     }
 }
@@ -10,6 +10,8 @@ import com.hypixel.hytale.protocol.Modifier;
 import com.hypixel.hytale.protocol.ItemResourceType;
 import com.hypixel.hytale.server.core.asset.type.item.config.Item;
 import com.hypixel.hytale.server.core.modules.i18n.I18nModule;
+import org.herolias.tooltips.api.CacheStats;
+import org.herolias.tooltips.api.ItemVisualOverrides;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -29,16 +31,19 @@ import java.util.concurrent.ConcurrentHashMap;
  * This registry solves that by creating lightweight <b>virtual item definitions</b>:
  * <ul>
  *   <li>Each unique (baseItemId + combinedHash) pair gets a deterministic
- *       virtual ID, e.g. {@code Tool_Pickaxe_Adamantite__dtt_a1b2c3d4}.</li>
- *   <li>The virtual item's {@link ItemBase} is a deep clone of the original with
- *       only the {@code id} and {@code translationProperties} changed.</li>
+ *       virtual ID, e.g. {@code Tool_Pickaxe_Adamantite__dtt_9f3c01a2b4d5e6f7}.</li>
+ *   <li>The virtual item's {@link ItemBase} is a shallow copy of a per-base-item
+ *       template, with the {@code id}, {@code translationProperties} and any
+ *       visual overrides replaced. All other nested objects are shared with the
+ *       template and must never be mutated.</li>
  *   <li>Virtual items are sent to individual players via {@code UpdateItems}
  *       packets — they are <b>never registered</b> in the server's global asset store.</li>
  * </ul>
  *
  * <h2>Thread safety</h2>
- * All internal maps use {@link ConcurrentHashMap}. Safe for concurrent use
- * from multiple world threads.
+ * Internal maps use {@link ConcurrentHashMap}; the bounded caches use the
+ * lock-striped {@link BoundedCache}. Safe for concurrent use from multiple
+ * world threads.
  */
 public class VirtualItemRegistry {
 
@@ -53,16 +58,29 @@ public class VirtualItemRegistry {
     /** Prefix for virtual item name translation keys. */
     private static final String NAME_KEY_PREFIX = "server.items.dynamic.";
 
+    /** Maximum entries in each of the bounded virtual item caches. */
+    private static final int CACHE_MAX = 10000;
+
     /**
      * Global cache: virtual item ID → cloned {@link ItemBase}.
-     * Populated lazily.
+     * <p>
+     * Bounded to prevent memory leaks from infinite dynamic tooltips. Lock-striped,
+     * and items are built outside of any lock, so building one never blocks
+     * lookups of others.
      */
+    private final BoundedCache<String, ItemBase> virtualItemCache =
+            new BoundedCache<>(CACHE_MAX, this::unindexVariant);
+
     /**
-     * Global cache: virtual item ID → cloned {@link ItemBase}.
-     * <p>
-     * Bounded LRU cache to prevent memory leaks from infinite dynamic tooltips.
+     * Secondary index: virtual ID → cache key → cached item of its suffixed
+     * variants ({@code ":named"}, {@code ":nk="}, {@code ":dk="}) in
+     * {@link #virtualItemCache}. Keys are added after insertion and removed by
+     * the eviction listener, so a lookup costs one map probe plus a probe per
+     * variant instead of a scan. The item is kept so that a late eviction of
+     * an older entry cannot unindex the key after it was cached again.
      */
-    private final Map<String, ItemBase> virtualItemCache = Collections.synchronizedMap(new LRUCache<>(10000));
+    private final ConcurrentHashMap<String, ConcurrentHashMap<String, ItemBase>> variantKeysByVirtualId =
+            new ConcurrentHashMap<>();
 
     /**
      * Per-player tracking: which virtual item IDs have been sent to each player.
@@ -76,6 +94,12 @@ public class VirtualItemRegistry {
 
 
 
+    /**
+     * Cache: base item ID → prepared packet template that virtual items are
+     * stamped from. Rebuilt when the item asset instance changes.
+     */
+    private final ConcurrentHashMap<String, PacketTemplate> packetTemplates = new ConcurrentHashMap<>();
+
     /** Cache: base item ID → description translation key. */
     private final ConcurrentHashMap<String, String> descriptionKeyCache = new ConcurrentHashMap<>();
 
@@ -88,34 +112,25 @@ public class VirtualItemRegistry {
     private final ConcurrentHashMap<String, String> originalNameCache = new ConcurrentHashMap<>();
 
     /**
-     * Cache: virtualId → built description string.
+     * Cache: "language:virtualId" → built description string.
      * <p>
-     * Bounded LRU cache.
+     * Bounded, lock-striped cache.
      */
-    private final Map<String, String> builtDescriptionCache = Collections.synchronizedMap(new LRUCache<>(10000));
+    private final BoundedCache<String, String> builtDescriptionCache =
+            new BoundedCache<>(CACHE_MAX, this::unindexDescription);
 
     /**
-     * Lazily-populated cache: qualityIndex → ItemEntityConfig (protocol form).
-     * Used to auto-resolve rarity particles when qualityIndex is overridden.
+     * Secondary index: base item ID → keys of its entries in
+     * {@link #builtDescriptionCache}, so invalidating one item does not scan
+     * the cache.
      */
-    private volatile Map<Integer, ItemEntityConfig> qualityEntityConfigCache;
+    private final ConcurrentHashMap<String, Set<String>> descriptionKeysByItem = new ConcurrentHashMap<>();
 
     /**
-     * Simple thread-safe LRU Cache implementation.
+     * Lazily-populated cache: qualityIndex → ItemEntityConfig (protocol form).
+     * Used to auto-resolve rarity particles when qualityIndex is overridden.
      */
-    private static class LRUCache<K, V> extends LinkedHashMap<K, V> {
-        private final int maxEntries;
-
-        public LRUCache(int maxEntries) {
-            super(maxEntries, 0.75f, true);
-            this.maxEntries = maxEntries;
-        }
-
-        @Override
-        protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
-            return size() > maxEntries;
-        }
-    }
+    private volatile Map<Integer, ItemEntityConfig> qualityEntityConfigCache;
 
     // ─────────────────────────────────────────────────────────────────────
     //  Virtual ID generation
@@ -123,10 +138,15 @@ public class VirtualItemRegistry {
 
     /**
      * Generates a deterministic virtual item ID for the given base item + hash.
+     * <p>
+     * The combined hash is a 64-bit value rendered as 16 hex characters, which
+     * keeps the chance of two distinct tooltips sharing an ID negligible even
+     * with many thousands of cached tooltips. Collisions that do occur are
+     * resolved by {@link TooltipRegistry} before an ID is handed out.
      *
      * @param baseItemId   the real item ID
      * @param combinedHash the hash from {@link TooltipRegistry.ComposedTooltip#getCombinedHash()}
-     * @return a virtual ID, e.g. {@code "Tool_Pickaxe_Adamantite__dtt_a1b2c3d4"}
+     * @return a virtual ID, e.g. {@code "Tool_Pickaxe_Adamantite__dtt_9f3c01a2b4d5e6f7"}
      */
     @Nonnull
     public static String generateVirtualId(@Nonnull String baseItemId, @Nonnull String combinedHash) {
@@ -175,9 +195,13 @@ public class VirtualItemRegistry {
     /**
      * Gets or creates the {@link ItemBase} protocol packet for a virtual item.
      * <p>
-     * The returned {@code ItemBase} is a deep clone of the original item's protocol
-     * representation, with the {@code id} and {@code translationProperties}
-     * changed to point to unique virtual keys.
+     * The returned {@code ItemBase} is a shallow copy of the base item's cached
+     * packet template, with the {@code id} and {@code translationProperties}
+     * changed to point to unique virtual keys and the visual overrides applied.
+     * Nested objects that were not overridden (particles, trails, appearance
+     * conditions, ...) are shared with the template and with every other
+     * virtual item of the same base, so neither this method's callers nor the
+     * packet pipeline may mutate them in place.
      *
      * @param baseItemId  the real item ID to clone from
      * @param virtualId   the virtual item ID to assign
@@ -191,7 +215,7 @@ public class VirtualItemRegistry {
     public ItemBase getOrCreateVirtualItemBase(@Nonnull String baseItemId,
                                                @Nonnull String virtualId,
                                                @Nullable String nameOverride,
-                                               @Nullable org.herolias.tooltips.api.ItemVisualOverrides visualOverrides,
+                                               @Nullable ItemVisualOverrides visualOverrides,
                                                @Nullable String nameTranslationKey,
                                                @Nullable String descriptionTranslationKey) {
         // Use a cache key that includes whether there's a name override or translation keys to differentiate variants.
@@ -202,77 +226,80 @@ public class VirtualItemRegistry {
             (nameTranslationKey != null ? ":nk=" + nameTranslationKey : "") +
             (descriptionTranslationKey != null ? ":dk=" + descriptionTranslationKey : "");
         
-        ItemBase cached = virtualItemCache.get(cacheKey);
-        if (cached != null) return cached;
-
         // Note: Fallback logic gets complicated with multiple dimensions. Since virtual ID 
         // includes the hash which includes keys, the virtualID itself is unique enough usually.
         // We stick to the specific cache key.
 
-        return virtualItemCache.computeIfAbsent(cacheKey, k -> {
+        // The clone is built outside of any cache lock; concurrent builders of
+        // the same key race and the first inserted ItemBase is kept.
+        boolean[] built = new boolean[1];
+        ItemBase result = virtualItemCache.computeIfAbsent(cacheKey, k -> {
             try {
-                Item originalItem = Item.getAssetMap().getAsset(baseItemId);
-                if (originalItem == null) {
-                    LOGGER.atWarning().log("Cannot create virtual item: base item not found: " + baseItemId);
-                    return null;
-                }
-
-                ItemBase originalPacket = originalItem.toPacket();
-                if (originalPacket == null) {
-                    LOGGER.atWarning().log("Cannot create virtual item: toPacket() returned null for: " + baseItemId);
-                    return null;
-                }
+                ItemBase template = getPacketTemplate(baseItemId);
+                if (template == null) return null;
 
-                // Deep clone — we must not modify the cached original
-                ItemBase clone = originalPacket.clone();
+                // Shallow copy — unmodified sub-objects are shared with the template
+                // (and the original packet), so nothing below may mutate a nested
+                // object in place
+                ItemBase clone = ShallowCopier.copy(template, ItemBase::clone);
                 clone.id = virtualId;
 
-                // Apply visual overrides
+                // Apply visual overrides, visiting only the fields that are set
                 if (visualOverrides != null) {
-                    if (visualOverrides.getModel() != null) clone.model = visualOverrides.getModel();
-                    if (visualOverrides.getTexture() != null) clone.texture = visualOverrides.getTexture();
-                    if (visualOverrides.getIcon() != null) clone.icon = visualOverrides.getIcon();
-                    if (visualOverrides.getAnimation() != null) clone.animation = visualOverrides.getAnimation();
-                    if (visualOverrides.getSoundEventIndex() != null) clone.soundEventIndex = visualOverrides.getSoundEventIndex();
-                    if (visualOverrides.getScale() != null) clone.scale = visualOverrides.getScale();
-                    if (visualOverrides.getQualityIndex() != null) clone.qualityIndex = visualOverrides.getQualityIndex();
-                    if (visualOverrides.getLight() != null) clone.light = visualOverrides.getLight();
-                    if (visualOverrides.getParticles() != null) clone.particles = visualOverrides.getParticles();
-                    if (visualOverrides.getPlayerAnimationsId() != null) clone.playerAnimationsId = visualOverrides.getPlayerAnimationsId();
-                    if (visualOverrides.getUsePlayerAnimations() != null) clone.usePlayerAnimations = visualOverrides.getUsePlayerAnimations();
-                    if (visualOverrides.getReticleIndex() != null) clone.reticleIndex = visualOverrides.getReticleIndex();
-                    if (visualOverrides.getIconProperties() != null) clone.iconProperties = visualOverrides.getIconProperties();
-                    if (visualOverrides.getFirstPersonParticles() != null) clone.firstPersonParticles = visualOverrides.getFirstPersonParticles();
-                    if (visualOverrides.getTrails() != null) clone.trails = visualOverrides.getTrails();
-                    if (visualOverrides.getDroppedItemAnimation() != null) clone.droppedItemAnimation = visualOverrides.getDroppedItemAnimation();
-                    if (visualOverrides.getItemSoundSetIndex() != null) clone.itemSoundSetIndex = visualOverrides.getItemSoundSetIndex();
-                    if (visualOverrides.getItemAppearanceConditions() != null) clone.itemAppearanceConditions = visualOverrides.getItemAppearanceConditions();
-                    if (visualOverrides.getPullbackConfig() != null) clone.pullbackConfig = visualOverrides.getPullbackConfig();
-                    if (visualOverrides.getClipsGeometry() != null) clone.clipsGeometry = visualOverrides.getClipsGeometry();
-                    if (visualOverrides.getRenderDeployablePreview() != null) clone.renderDeployablePreview = visualOverrides.getRenderDeployablePreview();
-                    if (visualOverrides.getSet() != null) clone.set = visualOverrides.getSet();
-                    if (visualOverrides.getCategories() != null) clone.categories = visualOverrides.getCategories();
-                    if (visualOverrides.getDisplayEntityStatsHUD() != null) clone.displayEntityStatsHUD = visualOverrides.getDisplayEntityStatsHUD();
-                    if (visualOverrides.getItemEntity() != null) clone.itemEntity = visualOverrides.getItemEntity();
-                    if (visualOverrides.getDurability() != null) clone.durability = visualOverrides.getDurability();
-                    if (visualOverrides.getArmor() != null) clone.armor = visualOverrides.getArmor();
-                    if (visualOverrides.getWeapon() != null) clone.weapon = visualOverrides.getWeapon();
-                    if (visualOverrides.getTool() != null) clone.tool = visualOverrides.getTool();
-
-                    // ── Additive stat modifier merge ──
-                    // Unlike the replace-style overrides above, these MERGE with
-                    // the original item's existing stat modifiers.
-                    if (visualOverrides.getAdditionalArmorStatModifiers() != null) {
-                        if (clone.armor == null) clone.armor = new ItemArmor();
-                        clone.armor.statModifiers = mergeModifierMaps(
-                                clone.armor.statModifiers,
-                                visualOverrides.getAdditionalArmorStatModifiers());
-                    }
-                    if (visualOverrides.getAdditionalWeaponStatModifiers() != null) {
-                        if (clone.weapon == null) clone.weapon = new ItemWeapon();
-                        clone.weapon.statModifiers = mergeModifierMaps(
-                                clone.weapon.statModifiers,
-                                visualOverrides.getAdditionalWeaponStatModifiers());
+                    long mask = visualOverrides.getPresenceMask();
+                    while (mask != 0) {
+                        int field = Long.numberOfTrailingZeros(mask);
+                        mask &= mask - 1;
+                        switch (field) {
+                            case ItemVisualOverrides.MODEL -> clone.model = visualOverrides.getModel();
+                            case ItemVisualOverrides.TEXTURE -> clone.texture = visualOverrides.getTexture();
+                            case ItemVisualOverrides.ICON -> clone.icon = visualOverrides.getIcon();
+                            case ItemVisualOverrides.ANIMATION -> clone.animation = visualOverrides.getAnimation();
+                            case ItemVisualOverrides.SOUND_EVENT_INDEX -> clone.soundEventIndex = visualOverrides.getSoundEventIndex();
+                            case ItemVisualOverrides.SCALE -> clone.scale = visualOverrides.getScale();
+                            case ItemVisualOverrides.QUALITY_INDEX -> clone.qualityIndex = visualOverrides.getQualityIndex();
+                            case ItemVisualOverrides.LIGHT -> clone.light = visualOverrides.getLight();
+                            case ItemVisualOverrides.PARTICLES -> clone.particles = visualOverrides.getParticles();
+                            case ItemVisualOverrides.PLAYER_ANIMATIONS_ID -> clone.playerAnimationsId = visualOverrides.getPlayerAnimationsId();
+                            case ItemVisualOverrides.USE_PLAYER_ANIMATIONS -> clone.usePlayerAnimations = visualOverrides.getUsePlayerAnimations();
+                            case ItemVisualOverrides.RETICLE_INDEX -> clone.reticleIndex = visualOverrides.getReticleIndex();
+                            case ItemVisualOverrides.ICON_PROPERTIES -> clone.iconProperties = visualOverrides.getIconProperties();
+                            case ItemVisualOverrides.FIRST_PERSON_PARTICLES -> clone.firstPersonParticles = visualOverrides.getFirstPersonParticles();
+                            case ItemVisualOverrides.TRAILS -> clone.trails = visualOverrides.getTrails();
+                            case ItemVisualOverrides.DROPPED_ITEM_ANIMATION -> clone.droppedItemAnimation = visualOverrides.getDroppedItemAnimation();
+                            case ItemVisualOverrides.ITEM_SOUND_SET_INDEX -> clone.itemSoundSetIndex = visualOverrides.getItemSoundSetIndex();
+                            case ItemVisualOverrides.ITEM_APPEARANCE_CONDITIONS -> clone.itemAppearanceConditions = visualOverrides.getItemAppearanceConditions();
+                            case ItemVisualOverrides.PULLBACK_CONFIG -> clone.pullbackConfig = visualOverrides.getPullbackConfig();
+                            case ItemVisualOverrides.CLIPS_GEOMETRY -> clone.clipsGeometry = visualOverrides.getClipsGeometry();
+                            case ItemVisualOverrides.RENDER_DEPLOYABLE_PREVIEW -> clone.renderDeployablePreview = visualOverrides.getRenderDeployablePreview();
+                            case ItemVisualOverrides.SET -> clone.set = visualOverrides.getSet();
+                            case ItemVisualOverrides.CATEGORIES -> clone.categories = visualOverrides.getCategories();
+                            case ItemVisualOverrides.DISPLAY_ENTITY_STATS_HUD -> clone.displayEntityStatsHUD = visualOverrides.getDisplayEntityStatsHUD();
+                            case ItemVisualOverrides.ITEM_ENTITY -> clone.itemEntity = visualOverrides.getItemEntity();
+                            case ItemVisualOverrides.DURABILITY -> clone.durability = visualOverrides.getDurability();
+                            case ItemVisualOverrides.ARMOR -> clone.armor = visualOverrides.getArmor();
+                            case ItemVisualOverrides.WEAPON -> clone.weapon = visualOverrides.getWeapon();
+                            case ItemVisualOverrides.TOOL -> clone.tool = visualOverrides.getTool();
+                            // ── Additive stat modifier merge ──
+                            // Unlike the replace-style overrides above, these MERGE with
+                            // the original item's existing stat modifiers. Their bits sit
+                            // above ARMOR/WEAPON, so replacements are applied first.
+                            case ItemVisualOverrides.ADDITIONAL_ARMOR_STAT_MODIFIERS -> {
+                                clone.armor = clone.armor != null
+                                        ? ShallowCopier.copy(clone.armor, ItemArmor::clone) : new ItemArmor();
+                                clone.armor.statModifiers = mergeModifierMaps(
+                                        clone.armor.statModifiers,
+                                        visualOverrides.getAdditionalArmorStatModifiers());
+                            }
+                            case ItemVisualOverrides.ADDITIONAL_WEAPON_STAT_MODIFIERS -> {
+                                clone.weapon = clone.weapon != null
+                                        ? ShallowCopier.copy(clone.weapon, ItemWeapon::clone) : new ItemWeapon();
+                                clone.weapon.statModifiers = mergeModifierMaps(
+                                        clone.weapon.statModifiers,
+                                        visualOverrides.getAdditionalWeaponStatModifiers());
+                            }
+                            default -> { }
+                        }
                     }
                 }
 
@@ -289,31 +316,10 @@ public class VirtualItemRegistry {
                     }
                 }
 
-                // Prevent double-counting in crafting grids by setting resource quantity to 0.
-                // We MUST NOT set resourceTypes to null, because Furnaces and other machinery 
-                // explicitly check for the presence of the resource type (e.g. "Fuel") 
-                // to allow the item into the slot initially.
-                if (clone.resourceTypes != null) {
-                    ItemResourceType[] newResourceTypes = new ItemResourceType[clone.resourceTypes.length];
-                    for (int i = 0; i < clone.resourceTypes.length; i++) {
-                        newResourceTypes[i] = clone.resourceTypes[i].clone();
-                        newResourceTypes[i].quantity = 0;
-                    }
-                    clone.resourceTypes = newResourceTypes;
-                }
-
-                // Prevent virtual items from appearing in the creative inventory.
-                // categories controls which creative library tabs show the item;
-                // variant = true causes the client to hide it by default.
-                // clone.categories = null; // RESTORED: Needed for client-side ability HUD resolution
-                clone.variant = true;
-
                 // Give the virtual item its own unique description translation key.
-                if (clone.translationProperties != null) {
-                    clone.translationProperties = clone.translationProperties.clone();
-                } else {
-                    clone.translationProperties = new ItemTranslationProperties();
-                }
+                // The template already holds a private copy, but it is shared by
+                // every virtual item of this base item.
+                clone.translationProperties = clone.translationProperties.clone();
 
                 // Determine Description Key
                 if (descriptionTranslationKey != null) {
@@ -327,19 +333,117 @@ public class VirtualItemRegistry {
                     clone.translationProperties.name = nameTranslationKey;
                 } else if (nameOverride != null) {
                     clone.translationProperties.name = getVirtualNameKey(virtualId);
-                } else {
-                     // If no override and no translation key, default to original name key logic
-                    if (clone.translationProperties.name == null) { // if it was null initially
-                         clone.translationProperties.name = "server.items." + baseItemId + ".name";
-                    }
                 }
+                // Otherwise keep the template's name key
 
+                built[0] = true;
                 return clone;
             } catch (Exception e) {
                 LOGGER.atWarning().log("Failed to create virtual item for " + virtualId + ": " + e.getMessage());
                 return null;
             }
         });
+        if (built[0] && result != null && !cacheKey.equals(virtualId)) {
+            indexVariant(virtualId, cacheKey, result);
+        }
+        return result;
+    }
+
+    /**
+     * Adds a variant to the variant index, unless it has already been evicted
+     * again. Checked under the index entry's lock, so an eviction either sees
+     * the new entry and removes it, or happened before and leaves it out.
+     */
+    private void indexVariant(@Nonnull String virtualId, @Nonnull String cacheKey, @Nonnull ItemBase item) {
+        variantKeysByVirtualId.compute(virtualId, (id, variants) -> {
+            if (!virtualItemCache.containsKey(cacheKey)) return variants;
+            if (variants == null) variants = new ConcurrentHashMap<>(4);
+            variants.put(cacheKey, item);
+            return variants;
+        });
+    }
+
+    /**
+     * Eviction listener: drops an evicted variant from the variant index,
+     * unless the index already holds a newer item for the same key.
+     */
+    private void unindexVariant(@Nonnull String cacheKey, @Nonnull ItemBase evicted) {
+        // The cached ItemBase carries its virtual ID
+        variantKeysByVirtualId.computeIfPresent(evicted.id, (id, variants) -> {
+            if (variants.get(cacheKey) == evicted) variants.remove(cacheKey);
+            return variants.isEmpty() ? null : variants;
+        });
+    }
+
+    /**
+     * Returns the prepared packet template for a base item, building it on
+     * first use and again whenever the item asset instance changes (i.e. after
+     * an asset reload).
+     * <p>
+     * The template is the item's packet with everything every virtual item of
+     * it shares already applied: zeroed resource quantities, {@code variant},
+     * and a private copy of the translation properties with the name key
+     * defaulted. Virtual items are shallow copies of it.
+     *
+     * @return the template, or {@code null} if the item or its packet is missing
+     */
+    @Nullable
+    private ItemBase getPacketTemplate(@Nonnull String baseItemId) {
+        Item originalItem = Item.getAssetMap().getAsset(baseItemId);
+        if (originalItem == null) {
+            LOGGER.atWarning().log("Cannot create virtual item: base item not found: " + baseItemId);
+            return null;
+        }
+        PacketTemplate cached = packetTemplates.get(baseItemId);
+        if (cached != null && cached.source == originalItem) return cached.packet;
+
+        ItemBase originalPacket = originalItem.toPacket();
+        if (originalPacket == null) {
+            LOGGER.atWarning().log("Cannot create virtual item: toPacket() returned null for: " + baseItemId);
+            return null;
+        }
+        ItemBase template = ShallowCopier.copy(originalPacket, ItemBase::clone);
+
+        // Prevent double-counting in crafting grids by setting resource quantity to 0.
+        // We MUST NOT set resourceTypes to null, because Furnaces and other machinery 
+        // explicitly check for the presence of the resource type (e.g. "Fuel") 
+        // to allow the item into the slot initially.
+        if (template.resourceTypes != null) {
+            ItemResourceType[] newResourceTypes = new ItemResourceType[template.resourceTypes.length];
+            for (int i = 0; i < template.resourceTypes.length; i++) {
+                newResourceTypes[i] = template.resourceTypes[i].clone();
+                newResourceTypes[i].quantity = 0;
+            }
+            template.resourceTypes = newResourceTypes;
+        }
+
+        // Prevent virtual items from appearing in the creative inventory.
+        // categories controls which creative library tabs show the item;
+        // variant = true causes the client to hide it by default.
+        // template.categories = null; // RESTORED: Needed for client-side ability HUD resolution
+        template.variant = true;
+
+        template.translationProperties = template.translationProperties != null
+                ? template.translationProperties.clone()
+                : new ItemTranslationProperties();
+        // If no override and no translation key, default to original name key logic
+        if (template.translationProperties.name == null) {
+            template.translationProperties.name = "server.items." + baseItemId + ".name";
+        }
+
+        packetTemplates.put(baseItemId, new PacketTemplate(originalItem, template));
+        return template;
+    }
+
+    /** A prepared base-item packet and the asset instance it was built from. */
+    private static final class PacketTemplate {
+        final Item source;
+        final ItemBase packet;
+
+        PacketTemplate(Item source, ItemBase packet) {
+            this.source = source;
+            this.packet = packet;
+        }
     }
 
     /**
@@ -417,8 +521,8 @@ public class VirtualItemRegistry {
 
     /**
      * Looks up a cached virtual {@link ItemBase} by virtual ID.
-     * Searches the cache using the exact virtual ID as prefix, since cache
-     * keys may include additional suffixes (e.g. {@code ":named"}).
+     * Cache keys may include additional suffixes (e.g. {@code ":named"}), so
+     * on a direct miss the variant index is consulted.
      *
      * @return the cached ItemBase, or {@code null} if not found
      */
@@ -427,14 +531,13 @@ public class VirtualItemRegistry {
         // Direct lookup first (most common case: no name override)
         ItemBase direct = virtualItemCache.get(virtualId);
         if (direct != null) return direct;
-        // Fallback: search for keys that start with the virtual ID
+        // Fallback: the variants cached for this virtual ID
         // (handles ":named", ":nk=", ":dk=" suffixes)
-        synchronized (virtualItemCache) {
-            for (Map.Entry<String, ItemBase> entry : virtualItemCache.entrySet()) {
-                if (entry.getKey().startsWith(virtualId)) {
-                    return entry.getValue();
-                }
-            }
+        Map<String, ItemBase> variants = variantKeysByVirtualId.get(virtualId);
+        if (variants == null) return null;
+        for (String key : variants.keySet()) {
+            ItemBase variant = virtualItemCache.get(key);
+            if (variant != null) return variant;
         }
         return null;
     }
@@ -544,12 +647,20 @@ public class VirtualItemRegistry {
     // ─────────────────────────────────────────────────────────────────────
 
     /**
-     * Gets a cached built description, or caches the given one.
+     * Caches a built description, replacing any cached text that differs.
+     * <p>
+     * A virtual ID is derived from the providers' hash inputs only, so the
+     * same ID can be rebuilt with different text after an invalidation.
      */
-    @Nonnull
-    public String cacheDescription(@Nonnull String virtualId, @Nullable String language, @Nonnull String description) {
+    public void cacheDescription(@Nonnull String virtualId, @Nullable String language, @Nonnull String description) {
         String cacheKey = (language != null ? language : "_default") + ":" + virtualId;
-        return builtDescriptionCache.computeIfAbsent(cacheKey, k -> description);
+        if (description.equals(builtDescriptionCache.get(cacheKey))) return;
+        String baseItemId = getBaseItemId(virtualId);
+        // Indexed before and after the insert, so a concurrent eviction of the
+        // same key cannot leave the new entry unindexed
+        if (baseItemId != null) indexDescription(baseItemId, cacheKey);
+        builtDescriptionCache.put(cacheKey, description);
+        if (baseItemId != null) indexDescription(baseItemId, cacheKey);
     }
 
     @Nullable
@@ -558,6 +669,46 @@ public class VirtualItemRegistry {
         return builtDescriptionCache.get(cacheKey);
     }
 
+    /**
+     * Drops the built descriptions of every virtual item of a base item, in
+     * every language.
+     */
+    public void invalidateDescriptions(@Nonnull String baseItemId) {
+        Set<String> keys = descriptionKeysByItem.remove(baseItemId);
+        if (keys == null) return;
+        for (String key : keys) {
+            builtDescriptionCache.remove(key);
+        }
+    }
+
+    /** Drops every built description. */
+    private void clearDescriptions() {
+        builtDescriptionCache.clear();
+        descriptionKeysByItem.clear();
+    }
+
+    private void indexDescription(@Nonnull String baseItemId, @Nonnull String cacheKey) {
+        descriptionKeysByItem.compute(baseItemId, (id, keys) -> {
+            if (keys == null) keys = ConcurrentHashMap.newKeySet();
+            keys.add(cacheKey);
+            return keys;
+        });
+    }
+
+    /**
+     * Eviction listener: drops an evicted description's key from the index,
+     * unless the same key has been cached again since.
+     */
+    private void unindexDescription(@Nonnull String cacheKey, @Nonnull String evicted) {
+        // The cache key is "language:virtualId"
+        String baseItemId = getBaseItemId(cacheKey.substring(cacheKey.indexOf(':') + 1));
+        if (baseItemId == null) return;
+        descriptionKeysByItem.computeIfPresent(baseItemId, (id, keys) -> {
+            if (!builtDescriptionCache.containsKey(cacheKey)) keys.remove(cacheKey);
+            return keys.isEmpty() ? null : keys;
+        });
+    }
+
     // ─────────────────────────────────────────────────────────────────────
     //  Lifecycle
     // ─────────────────────────────────────────────────────────────────────
@@ -577,7 +728,19 @@ public class VirtualItemRegistry {
         sentToPlayer.remove(playerUuid);
         playerSlotVirtualIds.remove(playerUuid);
         // Clear built descriptions so they are recomposed with fresh text
-        builtDescriptionCache.clear();
+        clearDescriptions();
+    }
+
+    /** Returns hit, miss and eviction counters of the virtual item cache. */
+    @Nonnull
+    public CacheStats getVirtualItemCacheStats() {
+        return virtualItemCache.stats();
+    }
+
+    /** Returns hit, miss and eviction counters of the built description cache. */
+    @Nonnull
+    public CacheStats getDescriptionCacheStats() {
+        return builtDescriptionCache.stats();
     }
 
     /**
@@ -591,17 +754,19 @@ public class VirtualItemRegistry {
     public void clearLanguageCaches() {
         originalDescriptionCache.clear();
         originalNameCache.clear();
-        builtDescriptionCache.clear();
+        clearDescriptions();
     }
 
     public void clearCache() {
         virtualItemCache.clear();
+        variantKeysByVirtualId.clear();
+        packetTemplates.clear();
         sentToPlayer.clear();
         playerSlotVirtualIds.clear();
         descriptionKeyCache.clear();
         originalDescriptionCache.clear();
         originalNameCache.clear();
-        builtDescriptionCache.clear();
+        clearDescriptions();
     }
 
     // ── Static helper for merging modifier maps ──